@@ -1,39 +1,116 @@
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.regex.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 public class AdvancedCodeProcessor {
-    private static final String OUTPUT_DIR = "processed_code";
+    static final String OUTPUT_DIR = "processed_code";
     private static final String REPORT_FILE = "processing_report.txt";
-    private static final String[] SUPPORTED_EXTENSIONS = {".java", ".py", ".cpp", ".js"};
-    private static class CodeStructure {
-        String originalCode;
+    private static final String CONCATENATED_FILE = "concatenated_output.txt";
+    private static final String OUTPUT_FILES_DIR = "files";
+    private static final String REPORT_SINK_NAME = "processing_report";
+    private static final int PARALLELISM = Math.max(1, Integer.getInteger("processor.parallelism", Runtime.getRuntime().availableProcessors()));
+    private static final int SPLIT_THRESHOLD = Integer.getInteger("processor.splitThreshold", 1 << 20);
+    private static final boolean CACHE_ENABLED = Boolean.parseBoolean(System.getProperty("processor.cache", "true"));
+    private static final int CACHE_ENTRIES = Integer.getInteger("processor.cacheEntries", 10000);
+    private static final long MMAP_THRESHOLD = Long.getLong("processor.mmapThreshold", 32L << 20);
+    private static final int MAX_IN_FLIGHT = Math.max(1, Integer.getInteger("processor.maxInFlight", PARALLELISM * 4));
+    private static final int WRITE_THREADS = Math.max(1, Integer.getInteger("processor.writeThreads", Math.max(2, PARALLELISM / 2)));
+    private static final String REPORT_SINK = System.getProperty("processor.reportSink", "none");
+    private static final long REPORT_MAX_BYTES = Long.getLong("processor.reportMaxBytes", 64L << 20);
+    private static final boolean REPORT_APPEND = Boolean.getBoolean("processor.reportAppend");
+    private static final boolean SEARCH_INDEX = Boolean.parseBoolean(System.getProperty("processor.searchIndex", "true"));
+    private static final boolean SYMBOL_INDEX = Boolean.parseBoolean(System.getProperty("processor.symbolIndex", "true"));
+    private static final String SYMBOL_INDEX_FILE = ".symbols";
+    private static final int DAEMON_PORT = Integer.getInteger("processor.daemonPort", 7878);
+    private static final long WATCH_DEBOUNCE_MILLIS = Math.max(1, Long.getLong("processor.watchDebounceMillis", 50));
+    private static final Pattern BLANK_LINES = Pattern.compile("(?m)^\\s*$[\n\r]+");
+    static class CodeStructure {
+        CharSequence originalCode;
+        final CharSequence source;
         String fileExtension;
-        List<String> imports;
-        List<String> classes;
-        List<String> methods;
-        List<String> variables;
-        int lineCount;
-        Map<String, Integer> methodLineCounts;
-        Map<String, String> methodSignatures;
+        LanguageProfile profile;
+        SpanList imports;
+        SpanList classes;
+        MethodTable methods;
+        SpanList variables;
+        CodeMetrics metrics;
         Map<String, Integer> variableUsage;
-        Map<String, String> methodParameters;
-        Map<String, String> methodReturnTypes;
-        CodeStructure(String code, String ext) {
-            this.originalCode = code;
+        EnumMap<SymbolIndex.Kind, List<String>> symbols;
+        List<NearDuplicateDetector.Sketch> sketches = List.of();
+        CodeStructure(CharSequence code, String ext) {
+            this.originalCode = code instanceof String ? code : null;
+            this.source = code;
             this.fileExtension = ext;
-            this.imports = new ArrayList<>();
-            this.classes = new ArrayList<>();
-            this.methods = new ArrayList<>();
-            this.variables = new ArrayList<>();
-            this.lineCount = code.split("\n").length;
-            this.methodLineCounts = new HashMap<>();
-            this.methodSignatures = new HashMap<>();
-            this.variableUsage = new HashMap<>();
-            this.methodParameters = new HashMap<>();
-            this.methodReturnTypes = new HashMap<>();}
+            this.profile = LanguageProfiles.forExtension(ext);
+            this.imports = new SpanList(code);
+            this.classes = new SpanList(code);
+            this.methods = new MethodTable(code, profile);
+            this.variables = new SpanList(code);
+            this.variableUsage = new HashMap<>();}
+        private CodeStructure(CodeStructure parsed) {
+            this.originalCode = parsed.originalCode;
+            this.source = parsed.source;
+            this.fileExtension = parsed.fileExtension;
+            this.profile = parsed.profile;
+            this.imports = parsed.imports.copy();
+            this.classes = parsed.classes.copy();
+            this.methods = parsed.methods.copy();
+            this.variables = parsed.variables.copy();
+            this.metrics = parsed.metrics;
+            this.variableUsage = parsed.variableUsage;
+            this.symbols = parsed.symbols;
+            this.sketches = parsed.sketches;}
+        CodeStructure copy() {
+            return new CodeStructure(this);}
+        void merge(CodeStructure part, int offset) {
+            imports.addAll(part.imports, offset);
+            classes.addAll(part.classes, offset);
+            methods.addAll(part.methods, offset);
+            variables.addAll(part.variables, offset);}
+    }
+    private static class FileResult {
+        final String path;
+        final FileRecord record;
+        final String edited;
+        final List<NearDuplicateDetector.Sketch> sketches;
+        final PipelineMetrics.FileTiming timing;
+        final boolean overran;
+        FileResult(String path, FileRecord record, String edited, List<NearDuplicateDetector.Sketch> sketches, PipelineMetrics.FileTiming timing, boolean overran) {
+            this.path = path;
+            this.record = record;
+            this.edited = edited;
+            this.sketches = sketches;
+            this.timing = timing;
+            this.overran = overran;}
+    }
+    private static final class RunContext {
+        final JobSpec job;
+        final RenameMap renames;
+        final SearchQuery search;
+        final ResultCache cache;
+        final PipelineMetrics metrics;
+        final OutputWriter outputs;
+        RunContext(JobSpec job, RenameMap renames, SearchQuery search, ResultCache cache, PipelineMetrics metrics, OutputWriter outputs) {
+            this.job = job;
+            this.renames = renames;
+            this.search = search;
+            this.cache = cache;
+            this.metrics = metrics;
+            this.outputs = outputs;}
     }
     public static void main(String[] args) {
+        if (args.length > 0) {
+            System.exit(runHeadless(args));}
+        startSession();
         Scanner scanner = new Scanner(System.in);
         System.out.println("Enter directory path to process (or 'exit' to quit):");
         while (true) {
@@ -60,8 +137,7 @@ public class AdvancedCodeProcessor {
             System.out.println("Transform identifiers to (uppercase/lowercase/none):");
             String transformCase = scanner.nextLine().trim().toLowerCase();
             try {
-                validateInputPath(inputPath);
-                processDirectory(inputPath, searchTerm, filterType, filterValue, concatenate, replaceFrom, replaceTo, formatIndent, transformCase);
+                runJob(new JobSpec(inputPath, searchTerm, filterType, filterValue, concatenate, "", false, replaceFrom, replaceTo, formatIndent, transformCase));
                 System.out.println("Processing complete. Enter another directory path or 'exit':");
             } catch (Exception e) {
                 System.out.println("Error: " + e.getMessage());
@@ -69,252 +145,542 @@ public class AdvancedCodeProcessor {
                 System.out.println("Enter a valid directory path or 'exit':");}
         }
         scanner.close();}
-    private static void processDirectory(String dirPath, String searchTerm, String filterType, String filterValue, boolean concatenate, String replaceFrom, String replaceTo, boolean formatIndent, String transformCase) throws IOException {
-        File dir = new File(dirPath);
+    private static int runHeadless(String[] args) {
+        try {
+            if (args[0].equals("--daemon") || args[0].startsWith("--daemon=")) {
+                ProcessorDaemon.serve(args[0].startsWith("--daemon=") ? Integer.parseInt(args[0].substring("--daemon=".length())) : DAEMON_PORT);
+                return 0;}
+            if (args[0].equals("--watch")) {
+                watchJob(JobSpec.fromArgs(Arrays.copyOfRange(args, 1, args.length)));
+                return 0;}
+            JobSpec job = JobSpec.fromArgs(args);
+            long started = System.nanoTime();
+            runJob(job);
+            System.out.println("Processing complete in " + (System.nanoTime() - started) / 1_000_000 + " ms.");
+            return 0;
+        } catch (Exception e) {
+            System.out.println("Error: " + e.getMessage());
+            logError("Headless run error: " + e.getMessage());
+            return 1;}
+    }
+    static void startSession() {
+        ParsedCorpus.startSession();
+        TrigramIndex.startSession();}
+    static void runJob(JobSpec job) throws IOException {
+        try {
+            validateInputPath(job.dirPath);
+            processDirectory(job);
+        } finally {
+            ErrorLog.flush();}
+    }
+    static void watchJob(JobSpec job) throws IOException, InterruptedException {
+        validateInputPath(job.dirPath);
+        if (!Files.isDirectory(Paths.get(job.dirPath))) {
+            throw new IOException("Watch mode needs a directory: " + job.dirPath);}
+        new WatchSession(job).run();}
+    private static final class WatchSession implements DirectoryWatcher.Listener {
+        private final JobSpec job;
+        private final Path root;
+        private final SearchQuery search;
+        private final ResultCache cache;
+        private final RenameMap renames;
+        private final Map<String, String> reports = new TreeMap<>();
+        private final Map<String, String> edited = new TreeMap<>();
+        private final NearDuplicateDetector duplicates = NearDuplicateDetector.ENABLED ? new NearDuplicateDetector() : null;
+        private final ForkJoinPool pool = new ForkJoinPool(PARALLELISM);
+        WatchSession(JobSpec job) throws IOException {
+            this.job = job;
+            this.root = Paths.get(job.dirPath);
+            this.search = SearchQuery.of(job.searchTerm);
+            this.renames = job.renames();
+            Files.createDirectories(Paths.get(OUTPUT_DIR));
+            this.cache = CACHE_ENABLED ? new ResultCache(Paths.get(OUTPUT_DIR, ".cache"), CACHE_ENTRIES) : null;}
+        void run() throws IOException, InterruptedException {
+            try (DirectoryWatcher watcher = new DirectoryWatcher(root, Paths.get(OUTPUT_DIR), WATCH_DEBOUNCE_MILLIS)) {
+                apply(collectSupportedFiles(root), new LinkedHashSet<>(), System.nanoTime());
+                System.out.println("Watching " + root + " for changes (Ctrl+C to stop).");
+                watcher.run(this);
+            } finally {
+                pool.shutdown();}
+        }
+        @Override
+        public void update(Set<Path> touched, boolean rescan, long firstEventNanos) throws IOException {
+            List<Path> changed = new ArrayList<>();
+            Set<String> removed = new LinkedHashSet<>();
+            if (rescan) {
+                changed = collectSupportedFiles(root);
+                Set<String> live = new HashSet<>();
+                for (Path file : changed) {
+                    live.add(relativeName(root, file));}
+                for (String name : reports.keySet()) {
+                    if (!live.contains(name)) {
+                        removed.add(name);}
+                }
+            } else {
+                Path outputDir = Paths.get(OUTPUT_DIR).toAbsolutePath().normalize();
+                Path absoluteRoot = root.toAbsolutePath().normalize();
+                for (Path event : touched) {
+                    Path path = root.resolve(absoluteRoot.relativize(event));
+                    if (Files.isRegularFile(path)) {
+                        if (isSupportedFile(path.getFileName().toString()) && !path.toAbsolutePath().normalize().startsWith(outputDir)) {
+                            changed.add(path);}
+                    } else if (!Files.exists(path)) {
+                        String name = relativeName(root, path);
+                        for (String known : reports.keySet()) {
+                            if (known.equals(name) || known.startsWith(name + "/")) {
+                                removed.add(known);}
+                        }
+                    }
+                }
+            }
+            if (!changed.isEmpty() || !removed.isEmpty()) {
+                apply(changed, removed, firstEventNanos);}
+        }
+        private void apply(List<Path> changed, Set<String> removed, long firstEventNanos) throws IOException {
+            long started = System.nanoTime();
+            OutputWriter outputs = job.concatenate ? null : new OutputWriter(Paths.get(OUTPUT_DIR, OUTPUT_FILES_DIR).toAbsolutePath().normalize(), WRITE_THREADS, MAX_IN_FLIGHT);
+            try (outputs) {
+                RunContext run = new RunContext(job, renames, search, cache, null, outputs);
+                List<ForkJoinTask<FileResult>> tasks = new ArrayList<>(changed.size());
+                for (Path file : changed) {
+                    tasks.add(pool.submit(() -> processEntry(run, root, file, null, null, null, null)));}
+                for (int i = 0; i < tasks.size(); i++) {
+                    String name = relativeName(root, changed.get(i));
+                    try {
+                        FileResult result = tasks.get(i).join();
+                        if (result != null) {
+                            reports.put(name, generateFileReport(result.record, result.overran));
+                            if (job.concatenate) {
+                                edited.put(name, result.edited);}
+                            if (duplicates != null) {
+                                duplicates.add(name, result.sketches);}
+                            continue;}
+                    } catch (RuntimeException e) {
+                        logError("Watch update failed for " + name + ": " + e.getMessage());
+                        if (Files.exists(changed.get(i))) {
+                            continue;}
+                    }
+                    removed.add(name);}
+                for (String name : removed) {
+                    reports.remove(name);
+                    edited.remove(name);
+                    if (duplicates != null) {
+                        duplicates.remove(name);}
+                    if (outputs != null) {
+                        outputs.delete(name);}
+                }
+            }
+            writeSnapshot();
+            ErrorLog.flush();
+            long finished = System.nanoTime();
+            System.out.println(String.format(Locale.ROOT, "Update: %d changed, %d removed, %d tracked in %.2f ms (%.2f ms after first event)",
+                    changed.size(), removed.size(), reports.size(), (finished - started) / 1e6, (finished - firstEventNanos) / 1e6));}
+        private void writeSnapshot() throws IOException {
+            try (Writer writer = openReport(StandardOpenOption.TRUNCATE_EXISTING)) {
+                writer.write("Processing Report - " + new Date() + "\n");
+                for (String report : reports.values()) {
+                    writer.write(report);}
+                if (duplicates != null) {
+                    writer.write(duplicates.report());}
+            }
+            if (job.concatenate) {
+                try (ConcatenationWriter writer = new ConcatenationWriter(Paths.get(OUTPUT_DIR, CONCATENATED_FILE))) {
+                    for (Map.Entry<String, String> entry : edited.entrySet()) {
+                        writer.append(root.resolve(entry.getKey()).toString(), entry.getValue());}
+                }
+            }
+        }
+    }
+    private static void processDirectory(JobSpec job) throws IOException {
+        Path input = Paths.get(job.dirPath);
+        RenameMap renames = job.renames();
         Files.createDirectories(Paths.get(OUTPUT_DIR));
-        File[] files = dir.listFiles((d, name) -> isSupportedFile(name));
-        if (files == null || files.length == 0) {
+        if (SourceArchive.isZip(input)) {
+            try (FileSystem archive = SourceArchive.openZip(input)) {
+                processTree(job, renames, archive.getPath("/"), input.toAbsolutePath().normalize().toString());}
+        } else if (SourceArchive.isTar(input)) {
+            String archive = input.toAbsolutePath().normalize().toString();
+            try (TarReader tar = SourceArchive.openTar(input)) {
+                processSources(job, renames, SearchQuery.of(job.searchTerm), null, null, run -> tarTasks(run, tar, archive));}
+        } else {
+            processTree(job, renames, input, null);}
+    }
+    private static void processTree(JobSpec job, RenameMap renames, Path root, String archive) throws IOException {
+        List<Path> files = collectSupportedFiles(root);
+        if (files.isEmpty()) {
             System.out.println("No supported files found.");
-            logError("No supported files in directory: " + dirPath);
+            logError("No supported files in " + (archive == null ? "directory: " + root : "archive: " + archive));
             return;}
-        List<CodeStructure> structures = new ArrayList<>();
+        Set<String> sources = null;
+        if (archive == null) {
+            sources = new HashSet<>();
+            for (Path file : files) {
+                sources.add(relativeName(root, file));}
+        }
+        SymbolIndex symbols = SYMBOL_INDEX && archive == null ? SymbolIndex.open(Paths.get(OUTPUT_DIR, SYMBOL_INDEX_FILE)) : null;
+        SymbolIndex.Kind symbolKind = symbols != null && !job.filterValue.isEmpty() ? SymbolIndex.Kind.forFilter(job.filterType) : null;
+        if (symbols != null) {
+            symbols.retain(root, files);}
+        if (symbolKind != null) {
+            long lookupStarted = System.nanoTime();
+            Set<String> matching = symbols.matchingFiles(symbolKind, job.filterValue);
+            long lookupNanos = System.nanoTime() - lookupStarted;
+            List<Path> candidates = new ArrayList<>();
+            for (Path file : files) {
+                if (symbols.isCandidate(file, matching)) {
+                    candidates.add(file);}
+            }
+            System.out.println("Symbol index: " + candidates.size() + " of " + files.size() + " files may match " + job.filterType + " '" + job.filterValue + "' (lookup " + String.format(Locale.ROOT, "%.3f", lookupNanos / 1e6) + " ms)");
+            files = candidates;}
+        SearchQuery search = SearchQuery.of(job.searchTerm);
+        TrigramIndex index = SEARCH_INDEX && archive == null && !search.isEmpty() ? TrigramIndex.forRoot(root) : null;
+        if (index != null) {
+            index.retain(files);
+            List<Path> candidates = new ArrayList<>();
+            for (Path file : files) {
+                if (index.isCandidate(file, search)) {
+                    candidates.add(file);}
+            }
+            System.out.println("Search index: " + candidates.size() + " of " + files.size() + " files are candidates");
+            files = candidates;}
+        List<Path> selected = files;
+        processSources(job, renames, search, symbols, sources, run -> selected.stream()
+                .map(file -> (Callable<FileResult>) () -> processEntry(run, root, file, archive, index, symbols, symbolKind))
+                .iterator());}
+    private interface SourceTasks {
+        Iterator<Callable<FileResult>> open(RunContext run);
+    }
+    private static void processSources(JobSpec job, RenameMap renames, SearchQuery search, SymbolIndex symbols, Set<String> sourceNames, SourceTasks sources) throws IOException {
         StringBuilder report = new StringBuilder();
         report.append("Processing Report - ").append(new Date()).append("\n");
-        for (File file : files) {
-            logProcessingStart(file);
-            CodeStructure structure = processFile(file, searchTerm, filterType, filterValue);
-            if (structure != null) {
-                structures.add(structure);
-                report.append(generateFileReport(file, structure));}
-            logProcessingEnd(file);}
+        ResultCache cache = CACHE_ENABLED ? new ResultCache(Paths.get(OUTPUT_DIR, ".cache"), CACHE_ENTRIES) : null;
+        Path concatenated = Paths.get(OUTPUT_DIR, CONCATENATED_FILE);
+        PipelineMetrics metrics = PipelineMetrics.create();
+        GuardedPattern.resetStats();
+        ParsedCorpus corpus = ParsedCorpus.session();
+        if (corpus != null) {
+            corpus.startRun();}
+        NearDuplicateDetector duplicates = NearDuplicateDetector.ENABLED ? new NearDuplicateDetector() : null;
+        ForkJoinPool pool = new ForkJoinPool(PARALLELISM);
+        OutputWriter outputs = job.concatenate ? null : new OutputWriter(Paths.get(OUTPUT_DIR, OUTPUT_FILES_DIR).toAbsolutePath().normalize(), WRITE_THREADS, MAX_IN_FLIGHT);
+        try (outputs;
+             ConcatenationWriter writer = job.concatenate ? new ConcatenationWriter(concatenated) : null;
+             ReportSink sink = ReportSink.open(REPORT_SINK, Paths.get(OUTPUT_DIR), REPORT_SINK_NAME, REPORT_MAX_BYTES, REPORT_APPEND)) {
+            Deque<ForkJoinTask<FileResult>> inFlight = new ArrayDeque<>();
+            Iterator<Callable<FileResult>> pending = sources.open(new RunContext(job, renames, search, cache, metrics, outputs));
+            while (pending.hasNext() || !inFlight.isEmpty()) {
+                while (pending.hasNext() && inFlight.size() < MAX_IN_FLIGHT) {
+                    inFlight.add(pool.submit(pending.next()));}
+                FileResult result = inFlight.poll().join();
+                if (result != null) {
+                    report.append(generateFileReport(result.record, result.overran));
+                    if (duplicates != null) {
+                        duplicates.add(result.record.path, result.sketches);}
+                    long writeStarted = PipelineMetrics.begin(result.timing);
+                    if (sink != null) {
+                        sink.write(result.record);}
+                    if (writer != null) {
+                        writer.append(result.path, result.edited);}
+                    PipelineMetrics.end(result.timing, PipelineMetrics.Stage.WRITE, writeStarted);
+                    if (metrics != null) {
+                        metrics.finishFile(result.timing);}
+                }
+            }
+            if (outputs != null && sourceNames != null) {
+                outputs.retain(sourceNames);}
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();}
+        if (cache != null) {
+            cache.evict();
+            report.append("Cache: ").append(cache.hits()).append(" hits, ").append(cache.misses()).append(" misses\n");
+            report.append("----------------------------------------\n");}
+        if (corpus != null) {
+            report.append(corpus.summary());
+            report.append("----------------------------------------\n");}
+        if (outputs != null) {
+            report.append("Output files: ").append(outputs.written()).append(" written, ").append(outputs.unchanged()).append(" unchanged, ").append(outputs.deleted()).append(" deleted\n");
+            report.append("----------------------------------------\n");}
+        if (duplicates != null) {
+            report.append(duplicates.report());}
+        if (symbols != null) {
+            symbols.save();}
+        if (metrics != null) {
+            report.append(metrics.summary());}
+        if (metrics != null || GuardedPattern.overrunCount() > 0) {
+            report.append(GuardedPattern.summary());}
         saveReport(report.toString());
-        if (concatenate) {
-            concatenateFiles(structures, replaceFrom, replaceTo, formatIndent, transformCase);
-        } else {
-            saveIndividualFiles(structures, replaceFrom, replaceTo, formatIndent, transformCase);
-        }
+        if (job.concatenate) {
+            System.out.println("Saved concatenated file: " + concatenated);}
+    }
+    private static List<Path> collectSupportedFiles(Path root) throws IOException {
+        Path outputDir = Paths.get(OUTPUT_DIR).toAbsolutePath().normalize();
+        try (Stream<Path> walk = Files.walk(root)) {
+            return walk.filter(Files::isRegularFile)
+                    .filter(path -> isSupportedFile(path.getFileName().toString()))
+                    .filter(path -> !path.toAbsolutePath().normalize().startsWith(outputDir))
+                    .sorted(Comparator.comparing(path -> relativeName(root, path)))
+                    .collect(Collectors.toList());}
+    }
+    private static String relativeName(Path root, Path file) {
+        return root.relativize(file).toString().replace(File.separatorChar, '/');}
+    private static FileResult processEntry(RunContext run, Path root, Path path, String archive, TrigramIndex index, SymbolIndex symbols, SymbolIndex.Kind symbolKind) {
+        String name = relativeName(root, path);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            long size = attributes.size();
+            PipelineMetrics.FileTiming timing = run.metrics == null ? null : run.metrics.startFile(name, size);
+            ParsedCorpus corpus = archive == null ? ParsedCorpus.session() : null;
+            ParsedCorpus.Entry parsed = corpus == null ? null : corpus.get(path, attributes);
+            long started = PipelineMetrics.begin(timing);
+            MappedSource mapped = parsed == null && archive == null && size > MMAP_THRESHOLD ? MappedSource.map(path) : null;
+            byte[] content = parsed == null && mapped == null ? Files.readAllBytes(path) : null;
+            String code = content == null ? null : new String(content);
+            PipelineMetrics.end(timing, PipelineMetrics.Stage.READ, started);
+            if (index != null && !index.isFresh(path, attributes) && (parsed != null || code != null || mapped.supportsByteLevelPath())) {
+                started = PipelineMetrics.begin(timing);
+                index.update(path, attributes, parsed != null ? parsed.structure.source : code != null ? code : mapped.text());
+                PipelineMetrics.end(timing, PipelineMetrics.Stage.INDEX, started);}
+            String source = archive == null ? path.toAbsolutePath().normalize().toString() : archive + "!/" + name;
+            return processSource(run, name, archive == null ? path.toString() : source, source, content, code, mapped, parsed, timing,
+                    corpus == null || mapped != null ? null : (structure, hash) -> corpus.put(path, attributes, structure, hash),
+                    symbols == null || symbols.isFresh(path, attributes) ? null : found -> symbols.update(path, attributes, found), symbolKind);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);}
+    }
+    private static Iterator<Callable<FileResult>> tarTasks(RunContext run, TarReader tar, String archive) {
+        return new Iterator<Callable<FileResult>>() {
+            private Callable<FileResult> next;
+            @Override
+            public boolean hasNext() {
+                try {
+                    TarReader.Entry entry;
+                    while (next == null && (entry = tar.next()) != null) {
+                        if (entry.regular && isSupportedFile(entry.name.substring(entry.name.lastIndexOf('/') + 1))) {
+                            String name = entry.name;
+                            PipelineMetrics.FileTiming timing = run.metrics == null ? null : run.metrics.startFile(name, entry.size);
+                            long started = PipelineMetrics.begin(timing);
+                            byte[] content = tar.read(entry);
+                            PipelineMetrics.end(timing, PipelineMetrics.Stage.READ, started);
+                            String source = archive + "!/" + name;
+                            next = () -> processSource(run, name, source, source, content, new String(content), null, null, timing, null, null, null);}
+                    }
+                    return next != null;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);}
+            }
+            @Override
+            public Callable<FileResult> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();}
+                Callable<FileResult> task = next;
+                next = null;
+                return task;}
+        };
+    }
+    private static FileResult processSource(RunContext run, String name, String displayPath, String source, byte[] content, String code, MappedSource mapped, ParsedCorpus.Entry parsed,
+            PipelineMetrics.FileTiming timing, BiConsumer<CodeStructure, String> parsedSink, Consumer<EnumMap<SymbolIndex.Kind, List<String>>> symbolSink, SymbolIndex.Kind symbolKind) throws IOException {
+        JobSpec job = run.job;
+        String fileName = name.substring(name.lastIndexOf('/') + 1);
+        logProcessingStart(fileName);
+        GuardedPattern.Tally tally = new GuardedPattern.Tally();
+        GuardedPattern.Tally previous = GuardedPattern.track(tally);
+        try {
+            String key = null;
+            String contentHash = null;
+            ResultCache.Entry cached = null;
+            long started;
+            if (run.cache != null) {
+                started = PipelineMetrics.begin(timing);
+                key = ResultCache.key(source, run.search.term, job.filterType, job.filterValue, run.renames == null ? "" : run.renames.fingerprint(), job.replaceFrom, job.replaceTo, String.valueOf(job.formatIndent), job.transformCase, NearDuplicateDetector.settings());
+                contentHash = parsed != null ? parsed.contentHash : mapped == null ? ResultCache.hash(content) : ResultCache.hash(mapped.bytes());
+                cached = contentHash == null ? null : run.cache.lookup(key, contentHash);
+                PipelineMetrics.end(timing, PipelineMetrics.Stage.CACHE, started);}
+            if (cached == null) {
+                CodeStructure structure = parsed != null ? processParsed(fileName, parsed.structure, run.search, timing)
+                        : mapped == null ? processFile(fileName, code, run.search, timing) : processMappedFile(fileName, mapped, run.search, timing);
+                CodeStructure parsedStructure = parsed == null && parsedSink != null ? structure : null;
+                if (structure == null) {
+                    cached = new ResultCache.Entry(true, getFileExtension(fileName), null, null, List.of(), null);
+                } else {
+                    started = PipelineMetrics.begin(timing);
+                    if (parsed != null || parsedSink != null) {
+                        structure = structure.copy();}
+                    filterStructure(structure, job.filterType, job.filterValue);
+                    PipelineMetrics.end(timing, PipelineMetrics.Stage.REPORT, started);
+                    started = PipelineMetrics.begin(timing);
+                    FileRecord record = fileRecord(name, structure);
+                    PipelineMetrics.end(timing, PipelineMetrics.Stage.REPORT, started);
+                    started = PipelineMetrics.begin(timing);
+                    String edited = editCode(restructureCode(structure), structure.fileExtension, run.renames, job.replaceFrom, job.replaceTo, job.formatIndent, job.transformCase);
+                    PipelineMetrics.end(timing, PipelineMetrics.Stage.EDIT, started);
+                    cached = new ResultCache.Entry(false, structure.fileExtension, record, edited, structure.sketches, structure.symbols);}
+                if (parsedStructure != null && !tally.overran()) {
+                    parsedSink.accept(parsedStructure, contentHash);}
+                if (run.cache != null && contentHash != null && !tally.overran()) {
+                    started = PipelineMetrics.begin(timing);
+                    run.cache.store(key, contentHash, cached);
+                    PipelineMetrics.end(timing, PipelineMetrics.Stage.CACHE, started);}
+            } else {
+                System.out.println("Cache hit: " + name);}
+            if (symbolSink != null && cached.symbols != null && !tally.overran()) {
+                symbolSink.accept(cached.symbols);}
+            if (cached.skipped || (symbolKind != null && !symbolKind.matches(cached.record))) {
+                if (run.metrics != null) {
+                    run.metrics.finishFile(timing);}
+                return null;}
+            PipelineMetrics.lines(timing, cached.record.totalLines);
+            if (run.outputs != null) {
+                started = PipelineMetrics.begin(timing);
+                run.outputs.submit(name, cached.edited);
+                PipelineMetrics.end(timing, PipelineMetrics.Stage.WRITE, started);}
+            return new FileResult(displayPath, cached.record.withPath(name), run.outputs == null ? cached.edited : null, cached.sketches, timing, tally.overran());
+        } finally {
+            GuardedPattern.track(previous);
+            logProcessingEnd(fileName);}
     }
     private static boolean isSupportedFile(String fileName) {
-        for (String ext : SUPPORTED_EXTENSIONS) {
-            if (fileName.toLowerCase().endsWith(ext)) {
-                return true;}
-        }
-        return false;}
-    private static CodeStructure processFile(File file, String searchTerm, String filterType, String filterValue) throws IOException {
-        String code = new String(Files.readAllBytes(file.toPath()));
-        if (!searchTerm.isEmpty() && !matchesSearchTerm(code, searchTerm)) {
+        return LanguageProfiles.isSupported(fileName);}
+    private static CodeStructure processParsed(String fileName, CodeStructure parsed, SearchQuery search, PipelineMetrics.FileTiming timing) {
+        long started = PipelineMetrics.begin(timing);
+        boolean matches = search.matches(parsed.source);
+        PipelineMetrics.end(timing, PipelineMetrics.Stage.EXTRACT, started);
+        if (!matches) {
             return null;}
-        String extension = getFileExtension(file.getName());
+        System.out.println("File: " + fileName + ", Lines: " + parsed.metrics.totalLines + " (parsed cache)");
+        return parsed;}
+    private static CodeStructure processFile(String fileName, String code, SearchQuery search, PipelineMetrics.FileTiming timing) {
+        long started = PipelineMetrics.begin(timing);
+        if (!search.matches(code)) {
+            PipelineMetrics.end(timing, PipelineMetrics.Stage.EXTRACT, started);
+            return null;}
+        String extension = getFileExtension(fileName);
         CodeStructure structure = extractStructure(code, extension);
-        System.out.println("File: " + file.getName() + ", Lines: " + structure.lineCount);
+        PipelineMetrics.end(timing, PipelineMetrics.Stage.EXTRACT, started);
+        System.out.println("File: " + fileName + ", Lines: " + structure.metrics.totalLines);
+        started = PipelineMetrics.begin(timing);
         structure.originalCode = removeBlankLines(structure.originalCode);
         structure.originalCode = removeDuplicateLines(structure.originalCode);
-        structure.methods = removeDuplicateMethods(structure);
+        PipelineMetrics.end(timing, PipelineMetrics.Stage.DEDUP, started);
+        return finishStructure(structure, timing);}
+    private static CodeStructure processMappedFile(String fileName, MappedSource source, SearchQuery search, PipelineMetrics.FileTiming timing) {
+        if (!source.supportsByteLevelPath()) {
+            long started = PipelineMetrics.begin(timing);
+            String decoded = source.decode();
+            PipelineMetrics.end(timing, PipelineMetrics.Stage.READ, started);
+            return processFile(fileName, decoded, search, timing);}
+        long started = PipelineMetrics.begin(timing);
+        CharSequence code = source.text();
+        if (!search.matches(code)) {
+            PipelineMetrics.end(timing, PipelineMetrics.Stage.EXTRACT, started);
+            return null;}
+        String extension = getFileExtension(fileName);
+        CodeStructure structure = extractStructure(code, extension);
+        PipelineMetrics.end(timing, PipelineMetrics.Stage.EXTRACT, started);
+        System.out.println("File: " + fileName + ", Lines: " + structure.metrics.totalLines);
+        started = PipelineMetrics.begin(timing);
+        structure.originalCode = source.dedupedLines();
+        PipelineMetrics.end(timing, PipelineMetrics.Stage.DEDUP, started);
+        return finishStructure(structure, timing);}
+    private static CodeStructure finishStructure(CodeStructure structure, PipelineMetrics.FileTiming timing) {
+        long started = PipelineMetrics.begin(timing);
+        removeDuplicateMethods(structure);
+        if (NearDuplicateDetector.ENABLED) {
+            structure.sketches = sketchesOf(structure);}
+        PipelineMetrics.end(timing, PipelineMetrics.Stage.DEDUP, started);
+        started = PipelineMetrics.begin(timing);
         analyzeVariableUsage(structure);
-        filterStructure(structure, filterType, filterValue);
+        PipelineMetrics.end(timing, PipelineMetrics.Stage.VARIABLES, started);
+        started = PipelineMetrics.begin(timing);
+        structure.symbols = symbolsOf(structure);
+        PipelineMetrics.end(timing, PipelineMetrics.Stage.INDEX, started);
         return structure;}
-    private static boolean matchesSearchTerm(String code, String searchTerm) {
-        if (!isValidRegex(searchTerm)) {
-            return code.contains(searchTerm);
-        }
-        try {
-            return Pattern.compile(searchTerm).matcher(code).find();
-        } catch (PatternSyntaxException e) {
-            logError("Invalid regex pattern: " + searchTerm);
-            return false;}
-    }
     private static String getFileExtension(String fileName) {
         int dotIndex = fileName.lastIndexOf('.');
         return dotIndex == -1 ? "" : fileName.substring(dotIndex).toLowerCase();}
-    private static String removeBlankLines(String code) {
-        return code.replaceAll("(?m)^\\s*$[\n\r]+", ""); }
-    private static String removeDuplicateLines(String code) {
-        String[] lines = code.split("\n");
-        Set<String> uniqueLines = new LinkedHashSet<>();
-        for (String line : lines) {
-            uniqueLines.add(line.trim());
-        }
-        return String.join("\n", uniqueLines); }
-    private static List<String> removeDuplicateMethods(CodeStructure structure) {
-        Map<String, String> uniqueMethods = new HashMap<>();
-        List<String> result = new ArrayList<>();
-        for (String method : structure.methods) {
-            String signature = extractMethodSignature(method, structure.fileExtension);
-            if (!uniqueMethods.containsKey(signature)) {
-                uniqueMethods.put(signature, method);
-                result.add(method);
-                structure.methodSignatures.put(method, signature);}
+    private static String removeBlankLines(CharSequence code) {
+        return BLANK_LINES.matcher(code).replaceAll(""); }
+    private static String removeDuplicateLines(CharSequence code) {
+        return LineFingerprintSet.removeDuplicateLines(code);}
+    private static MethodTable removeDuplicateMethods(CodeStructure structure) {
+        structure.methods.removeDuplicateSignatures();
+        return structure.methods;}
+    private static List<NearDuplicateDetector.Sketch> sketchesOf(CodeStructure structure) {
+        List<NearDuplicateDetector.Sketch> sketches = new ArrayList<>();
+        MethodTable methods = structure.methods;
+        for (int i = 0; i < methods.size(); i++) {
+            NearDuplicateDetector.Sketch sketch = NearDuplicateDetector.sketch(methods.signature(i), methods.lines(i), methods.view(i));
+            if (sketch != null) {
+                sketches.add(sketch);}
         }
-        return result;}
-    private static String extractMethodSignature(String method, String extension) {
-        switch (extension) {
-            case ".java":
-                return method.replaceAll("(?s)\\{.*\\}", "").trim();
-            case ".py":
-                return method.replaceAll("(?s):[\\s\\S]*", "").trim();
-            case ".cpp":
-                return method.replaceAll("(?s)\\{.*\\}", "").trim();
-            case ".js":
-                return method.replaceAll("(?s)\\{.*\\}", "").trim();
-            default:
-                return method;}
-    }
+        return sketches;}
     private static void analyzeVariableUsage(CodeStructure structure) {
-        for (String variable : structure.variables) {
-            String varName = extractVariableName(variable, structure.fileExtension);
-            int usageCount = countOccurrences(structure.originalCode, varName);
+        IdentifierCounts identifierCounts = IdentifierCounts.of(structure.originalCode);
+        for (int i = 0; i < structure.variables.size(); i++) {
+            String varName = structure.profile.extractVariableName(structure.variables.get(i));
+            int usageCount = IdentifierCounts.isIdentifier(varName) ? identifierCounts.count(varName) : countOccurrences(structure.originalCode, varName);
             structure.variableUsage.put(varName, usageCount);}
     }
-    private static String extractVariableName(String variable, String extension) {
-        switch (extension) {
-            case ".java":
-            case ".cpp":
-                return variable.replaceAll("(?s).*?\\w+\\s+(\\w+)\\s*(=.*)?;.*", "$1").trim();
-            case ".py":
-                return variable.replaceAll("(?s)(\\w+)\\s*=.*", "$1").trim();
-            case ".js":
-                return variable.replaceAll("(?s)(let|const|var)\\s+(\\w+).*", "$2").trim();
-            default:
-                return "unknown";}
-    }
-    private static int countOccurrences(String code, String term) {
+    private static int countOccurrences(CharSequence code, String term) {
         int count = 0;
         Pattern pattern = Pattern.compile("\\b" + Pattern.quote(term) + "\\b");
         Matcher matcher = pattern.matcher(code);
         while (matcher.find()) {
             count++;}
         return count;}
-    private static CodeStructure extractStructure(String code, String extension) {
+    static CodeStructure extractStructure(String code, String extension) {
+        return extractStructure((CharSequence) code, extension);}
+    private static CodeStructure extractStructure(CharSequence code, String extension) {
+        CodeStructure structure = code.length() > SPLIT_THRESHOLD ? extractStructureInBlocks(code, extension) : scanStructure(code, extension);
+        structure.metrics = CodeMetrics.collect(code, structure.profile, structure.methods);
+        return structure;}
+    private static CodeStructure scanStructure(CharSequence code, String extension) {
         CodeStructure structure = new CodeStructure(code, extension);
-        switch (extension) {
-            case ".java":
-                extractJavaStructure(structure);
-                break;
-            case ".py":
-                extractPythonStructure(structure);
-                break;
-            case ".cpp":
-                extractCppStructure(structure);
-                break;
-            case ".js":
-                extractJsStructure(structure);
-                break;}
-        computeMethodLineCounts(structure);
-        extractMethodDetails(structure);
+        structure.profile.extractStructure(structure, code);
         return structure;}
-    private static void extractJavaStructure(CodeStructure structure) {
-        Pattern importPattern = Pattern.compile("import\\s+.*?;");
-        Matcher importMatcher = importPattern.matcher(structure.originalCode);
-        while (importMatcher.find()) {
-            structure.imports.add(importMatcher.group());}
-        Pattern classPattern = Pattern.compile("class\\s+\\w+\\s*\\{[^}]*\\}", Pattern.DOTALL);
-        Matcher classMatcher = classPattern.matcher(structure.originalCode);
-        while (classMatcher.find()) {
-            structure.classes.add(classMatcher.group());}
-        Pattern methodPattern = Pattern.compile("(public|private|protected)?\\s*(static)?\\s*(\\w+)\\s+(\\w+)\\s*\\([^)]*\\)\\s*\\{[^}]*\\}", Pattern.DOTALL);
-        Matcher methodMatcher = methodPattern.matcher(structure.originalCode);
-        while (methodMatcher.find()) {
-            structure.methods.add(methodMatcher.group());}
-        Pattern variablePattern = Pattern.compile("(public|private|protected)?\\s*(static)?\\s*\\w+\\s+\\w+\\s*(=\\s*[^;]+)?;");
-        Matcher variableMatcher = variablePattern.matcher(structure.originalCode);
-        while (variableMatcher.find()) {
-            structure.variables.add(variableMatcher.group());}
-    }
-    private static void extractPythonStructure(CodeStructure structure) {
-        Pattern importPattern = Pattern.compile("^(import|from)\\s+.*$", Pattern.MULTILINE);
-        Matcher importMatcher = importPattern.matcher(structure.originalCode);
-        while (importMatcher.find()) {
-            structure.imports.add(importMatcher.group());}
-        Pattern classPattern = Pattern.compile("^class\\s+\\w+.*?:[\\s\\S]*?(?=^\\w|$)", Pattern.MULTILINE);
-        Matcher classMatcher = classPattern.matcher(structure.originalCode);
-        while (classMatcher.find()) {
-            structure.classes.add(classMatcher.group());}
-        Pattern methodPattern = Pattern.compile("^def\\s+(\\w+)\\s*\\([^)]*\\):[\\s\\S]*?(?=^\\w|$)", Pattern.MULTILINE);
-        Matcher methodMatcher = methodPattern.matcher(structure.originalCode);
-        while (methodMatcher.find()) {
-            structure.methods.add(methodMatcher.group());}
-        Pattern variablePattern = Pattern.compile("^\\w+\\s*=\\s*[^\\n]+", Pattern.MULTILINE);
-        Matcher variableMatcher = variablePattern.matcher(structure.originalCode);
-        while (variableMatcher.find()) {
-            structure.variables.add(variableMatcher.group());}
-    }
-    private static void extractCppStructure(CodeStructure structure) {
-        Pattern includePattern = Pattern.compile("#include\\s+[<\"][^>\"]+[>\"]");
-        Matcher includeMatcher = includePattern.matcher(structure.originalCode);
-        while (includeMatcher.find()) {
-            structure.imports.add(includeMatcher.group()); }
-        Pattern classPattern = Pattern.compile("(class|struct)\\s+\\w+\\s*\\{[^}]*\\};", Pattern.DOTALL);
-        Matcher classMatcher = classPattern.matcher(structure.originalCode);
-        while (classMatcher.find()) {
-            structure.classes.add(classMatcher.group());
-        }
-        Pattern methodPattern = Pattern.compile("\\w+\\s+(\\w+)\\s*\\([^)]*\\)\\s*\\{[^}]*\\}", Pattern.DOTALL);
-        Matcher methodMatcher = methodPattern.matcher(structure.originalCode);
-        while (methodMatcher.find()) {
-            structure.methods.add(methodMatcher.group());
-        }
-        Pattern variablePattern = Pattern.compile("\\w+\\s+\\w+\\s*(=\\s*[^;]+)?;");
-        Matcher variableMatcher = variablePattern.matcher(structure.originalCode);
-        while (variableMatcher.find()) {
-            structure.variables.add(variableMatcher.group());}
-    }
-    private static void extractJsStructure(CodeStructure structure) {
-        Pattern importPattern = Pattern.compile("(import|require\\s*\\([^)]+\\))\\s*;");
-        Matcher importMatcher = importPattern.matcher(structure.originalCode);
-        while (importMatcher.find()) {
-            structure.imports.add(importMatcher.group());}
-        Pattern classPattern = Pattern.compile("class\\s+\\w+\\s*\\{[^}]*\\}", Pattern.DOTALL);
-        Matcher classMatcher = classPattern.matcher(structure.originalCode);
-        while (classMatcher.find()) {
-            structure.classes.add(classMatcher.group());}
-        Pattern methodPattern = Pattern.compile("(function\\s+(\\w+)\\s*\\([^)]*\\)|(\\w+)\\s*\\([^)]*\\)\\s*=>\\s*\\{)[^}]*\\}", Pattern.DOTALL);
-        Matcher methodMatcher = methodPattern.matcher(structure.originalCode);
-        while (methodMatcher.find()) {
-            structure.methods.add(methodMatcher.group());}
-        Pattern variablePattern = Pattern.compile("(let|const|var)\\s+\\w+\\s*(=\\s*[^;]+)?;");
-        Matcher variableMatcher = variablePattern.matcher(structure.originalCode);
-        while (variableMatcher.find()) {
-            structure.variables.add(variableMatcher.group());}
-    }
-    private static void computeMethodLineCounts(CodeStructure structure) {
-        for (String method : structure.methods) {
-            int lines = method.split("\n").length;
-            String signature = extractMethodSignature(method, structure.fileExtension);
-            structure.methodLineCounts.put(signature, lines);}
-    }
-    private static void extractMethodDetails(CodeStructure structure) {
-        for (String method : structure.methods) {
-            String signature = extractMethodSignature(method, structure.fileExtension);
-            String params = extractMethodParameters(method, structure.fileExtension);
-            String returnType = extractMethodReturnType(method, structure.fileExtension);
-            structure.methodParameters.put(signature, params);
-            structure.methodReturnTypes.put(signature, returnType);}
-    }
-    private static String extractMethodParameters(String method, String extension) {
-        switch (extension) {
-            case ".java":
-            case ".cpp":
-                String paramPart = method.replaceAll("(?s).*?\\([^)]*\\).*", "$0").replaceAll("(?s)\\{.*", "");
-                return paramPart.replaceAll(".*?\\((.*?)\\).*", "$1").trim();
-            case ".py":
-                return method.replaceAll("(?s)def\\s+\\w+\\s*\\(([^)]*)\\):.*", "$1").trim();
-            case ".js":
-                return method.replaceAll("(?s)(function\\s+\\w+\\s*|\\w+\\s*)\\(([^)]*)\\).*", "$2").trim();
-            default:
-                return "unknown";}
-    }
-    private static String extractMethodReturnType(String method, String extension) {
-        switch (extension) {
-            case ".java":
-                return method.replaceAll("(?s)(public|private|protected)?\\s*(static)?\\s*(\\w+)\\s+\\w+\\s*\\([^)]*\\).*", "$3").trim();
-            case ".cpp":
-                return method.replaceAll("(?s)(\\w+)\\s+\\w+\\s*\\([^)]*\\).*", "$1").trim();
-            case ".py":
-            case ".js":
-                return "unknown";
-            default:
-                return "unknown";}
-    }
+    private static CodeStructure extractStructureInBlocks(CharSequence code, String extension) {
+        LanguageProfile profile = LanguageProfiles.forExtension(extension);
+        int[] boundaries = splitTopLevelBlocks(code, profile, Math.max(1, SPLIT_THRESHOLD / 2));
+        if (boundaries.length < 3) {
+            return scanStructure(code, extension);}
+        GuardedPattern.Tally tally = GuardedPattern.current();
+        List<ForkJoinTask<CodeStructure>> tasks = new ArrayList<>();
+        for (int b = 0; b + 1 < boundaries.length; b++) {
+            CharSequence block = code.subSequence(boundaries[b], boundaries[b + 1]);
+            tasks.add(ForkJoinTask.adapt(() -> scanBlock(block, extension, tally)));}
+        ForkJoinTask.invokeAll(tasks);
+        CodeStructure structure = new CodeStructure(code, extension);
+        for (int b = 0; b < tasks.size(); b++) {
+            structure.merge(tasks.get(b).join(), boundaries[b]);}
+        return structure;}
+    private static CodeStructure scanBlock(CharSequence block, String extension, GuardedPattern.Tally tally) {
+        GuardedPattern.Tally previous = GuardedPattern.track(tally);
+        try {
+            return scanStructure(block, extension);
+        } finally {
+            GuardedPattern.track(previous);}
+    }
+    private static int[] splitTopLevelBlocks(CharSequence code, LanguageProfile profile, int targetSize) {
+        List<Integer> boundaries = new ArrayList<>();
+        boundaries.add(0);
+        int start = 0;
+        while (start < code.length()) {
+            int boundary = start + targetSize < code.length() ? profile.nextBlockBoundary(code, start + targetSize) : -1;
+            int end = boundary <= start ? code.length() : boundary;
+            boundaries.add(end);
+            start = end;}
+        return boundaries.stream().mapToInt(Integer::intValue).toArray();}
+    private static EnumMap<SymbolIndex.Kind, List<String>> symbolsOf(CodeStructure structure) {
+        EnumMap<SymbolIndex.Kind, List<String>> symbols = SymbolIndex.FileSymbols.empty();
+        MethodTable methods = structure.methods;
+        for (int i = 0; i < methods.size(); i++) {
+            symbols.get(SymbolIndex.Kind.METHOD_NAME).add(Objects.toString(methods.name(i), ""));
+            symbols.get(SymbolIndex.Kind.RETURN_TYPE).add(Objects.toString(methods.returnType(i), ""));
+            symbols.get(SymbolIndex.Kind.PARAMETER_TYPE).add(Objects.toString(methods.parameters(i), ""));}
+        for (int i = 0; i < structure.variables.size(); i++) {
+            symbols.get(SymbolIndex.Kind.VARIABLE_TYPE).add(Objects.toString(structure.profile.extractVariableType(structure.variables.get(i)), ""));}
+        return symbols;}
     private static void filterStructure(CodeStructure structure, String filterType, String filterValue) {
         if (filterType.isEmpty() || filterType.equals("all")) {
             return;
@@ -335,28 +701,28 @@ public class AdvancedCodeProcessor {
                 structure.classes.clear();
                 structure.variables.clear();
                 if (!filterValue.isEmpty()) {
-                    structure.methods.removeIf(method -> !method.contains(filterValue));}
+                    structure.methods.retain(i -> structure.methods.contains(i, filterValue));}
                 break;
             case "variables":
                 structure.imports.clear();
                 structure.classes.clear();
                 structure.methods.clear();
                 if (!filterValue.isEmpty()) {
-                    structure.variables.removeIf(var -> !var.contains(filterValue));}
+                    structure.variables.retain(i -> structure.variables.contains(i, filterValue));}
                 break;
             case "method_name":
                 structure.imports.clear();
                 structure.classes.clear();
                 structure.variables.clear();
                 if (!filterValue.isEmpty()) {
-                    structure.methods.removeIf(method -> !extractMethodName(method, structure.fileExtension).equals(filterValue));}
+                    structure.methods.retain(i -> structure.methods.name(i).equals(filterValue));}
                 break;
             case "variable_type":
                 structure.imports.clear();
                 structure.classes.clear();
                 structure.methods.clear();
                 if (!filterValue.isEmpty()) {
-                    structure.variables.removeIf(var -> !extractVariableType(var, structure.fileExtension).equals(filterValue));
+                    structure.variables.retain(i -> structure.profile.extractVariableType(structure.variables.get(i)).equals(filterValue));
                 }
                 break;
             case "parameter_type":
@@ -364,387 +730,120 @@ public class AdvancedCodeProcessor {
                 structure.classes.clear();
                 structure.variables.clear();
                 if (!filterValue.isEmpty()) {
-                    structure.methods.removeIf(method -> !structure.methodParameters.getOrDefault(extractMethodSignature(method, structure.fileExtension), "").contains(filterValue));}
+                    structure.methods.retain(i -> structure.methods.parameters(i).contains(filterValue));}
                 break;
             case "return_type":
                 structure.imports.clear();
                 structure.classes.clear();
                 structure.variables.clear();
                 if (!filterValue.isEmpty()) {
-                    structure.methods.removeIf(method -> !structure.methodReturnTypes.getOrDefault(extractMethodSignature(method, structure.fileExtension), "").equals(filterValue));
+                    structure.methods.retain(i -> structure.methods.returnType(i).equals(filterValue));
                 }
                 break;}
     }
-    private static String extractVariableType(String variable, String extension) {
-        switch (extension) {
-            case ".java":
-            case ".cpp":
-                return variable.replaceAll("(?s).*?(\\w+)\\s+\\w+\\s*(=.*)?;.*", "$1").trim();
-            case ".py":
-                return "unknown";
-            case ".js":
-                return variable.replaceAll("(?s)(let|const|var)\\s+\\w+.*", "$1").trim();
-            default:
-                return "unknown";}
-    }
-    private static String extractMethodName(String method, String extension) {
-        switch (extension) {
-            case ".java":
-                return method.replaceAll("(?s).*?\\w+\\s+(\\w+)\\s*\\([^)]*\\).*", "$1").trim();
-            case ".py":
-                return method.replaceAll("(?s)def\\s+(\\w+)\\s*\\([^)]*\\):.*", "$1").trim();
-            case ".cpp":
-                return method.replaceAll("(?s).*?\\w+\\s+(\\w+)\\s*\\([^)]*\\).*", "$1").trim();
-            case ".js":
-                return method.replaceAll("(?s).*?(function\\s+|)(\\w+)\\s*\\([^)]*\\).*", "$2").trim();
-            default:
-                return "unknown";}
-    }
     private static String restructureCode(CodeStructure structure) {
         StringBuilder restructured = new StringBuilder();
         if (!structure.imports.isEmpty()) {
-            restructured.append(String.join("\n", sortByLength(structure.imports))).append("\n");
+            appendInOrder(restructured, structure.imports, sortByLength(structure.imports));
         }
         if (!structure.variables.isEmpty()) {
-            restructured.append(String.join("\n", sortByLength(structure.variables))).append("\n");
+            appendInOrder(restructured, structure.variables, sortByLength(structure.variables));
         }
         if (!structure.classes.isEmpty()) {
-            restructured.append(String.join("\n", sortByLength(structure.classes))).append("\n");
+            appendInOrder(restructured, structure.classes, sortByLength(structure.classes));
         }
         if (!structure.methods.isEmpty()) {
-            restructured.append(String.join("\n", sortByLineCount(structure.methods, structure.methodLineCounts))).append("\n");
+            int[] order = sortByLineCount(structure.methods);
+            for (int i : order) {
+                structure.methods.appendTo(restructured, i);
+                restructured.append("\n");}
         }
         return restructured.toString().trim();
     }
-    private static List<String> sortByLength(List<String> elements) {
-        List<String> sorted = new ArrayList<>(elements);
-        sorted.sort((a, b) -> b.length() - a.length());
-        return sorted;}
-    private static List<String> sortByLineCount(List<String> elements, Map<String, Integer> lineCounts) {
-        List<String> sorted = new ArrayList<>(elements);
-        sorted.sort((a, b) -> {
-            String sigA = normalizeCode(a);
-            String sigB = normalizeCode(b);
-            return lineCounts.getOrDefault(sigB, 0) - lineCounts.getOrDefault(sigA, 0);
-        });
-        return sorted;}
-    private static String normalizeCode(String code) {
-        return code.replaceAll("\\s+", " ").trim();
-    }
-    private static String formatIndentation(String code, String extension) {
-        StringBuilder formatted = new StringBuilder();
-        String[] lines = code.split("\n");
-        int indentLevel = 0;
-        String indentUnit = extension.equals(".py") ? "    " : "\t";
-        for (String line : lines) {
-            String trimmed = line.trim();
-            if (trimmed.isEmpty()) {
-                continue;
-            }
-            if (trimmed.endsWith("}") || trimmed.endsWith(":")) {
-                indentLevel = Math.max(0, indentLevel - 1);
-            }
-            formatted.append(indentUnit.repeat(indentLevel)).append(trimmed).append("\n");
-            if (trimmed.endsWith("{") || (extension.equals(".py") && trimmed.endsWith(":"))) {
-                indentLevel++;
-            }
-        }
-        return formatted.toString().trim();}
-    private static String transformCase(String code, String transformCase) {
-        if (transformCase.equals("uppercase")) {
-            return transformIdentifiers(code, true);
-        } else if (transformCase.equals("lowercase")) {
-            return transformIdentifiers(code, false);
-        }
-        return code;}
-    private static String transformIdentifiers(String code, boolean toUpper) {
-        Pattern identifierPattern = Pattern.compile("\\b\\w+\\b");
-        Matcher matcher = identifierPattern.matcher(code);
-        StringBuilder result = new StringBuilder();
-        int lastEnd = 0;
-        while (matcher.find()) {
-            result.append(code, lastEnd, matcher.start());
-            String identifier = matcher.group();
-            result.append(toUpper ? identifier.toUpperCase() : identifier.toLowerCase());
-            lastEnd = matcher.end();}
-        result.append(code.substring(lastEnd));
-        return result.toString();}
-    private static String editCode(String code, String extension, String replaceFrom, String replaceTo, boolean formatIndent, String transformCase) {
-        String edited = code;
-        if (!replaceFrom.isEmpty()) {
-            edited = edited.replaceAll(Pattern.quote(replaceFrom), replaceTo);
-        }
-        switch (extension) {
-            case ".java":
-                edited = addJavaDocComments(edited);
-                break;
-            case ".py":
-                edited = addPythonDocstrings(edited);
-                break;
-            case ".cpp":
-                edited = addCppComments(edited);
-                break;
-            case ".js":
-                edited = addJsComments(edited);
-                break;}
-        if (formatIndent) {
-            edited = formatIndentation(edited, extension);
-        }
-        edited = transformCase(edited, transformCase);
-        return edited;}
-    private static String addJavaDocComments(String code) {
-        StringBuilder result = new StringBuilder();
-        Pattern methodPattern = Pattern.compile("(public|private|protected)?\\s*(static)?\\s*\\w+\\s+(\\w+)\\s*\\([^)]*\\)\\s*\\{");
-        Matcher matcher = methodPattern.matcher(code);
-        int lastEnd = 0;
-        while (matcher.find()) {
-            result.append(code, lastEnd, matcher.start());
-            String methodName = matcher.group(3);
-            result.append("/**").append("\n")
-                  .append(" * Method: ").append(methodName).append("\n")
-                  .append(" * Description: Auto-generated method documentation").append("\n")
-                  .append(" * Parameters: Auto-detected").append("\n")
-                  .append(" * Returns: Auto-detected").append("\n")
-                  .append(" */**").append("\n");
-            result.append(matcher.group());
-            lastEnd = matcher.end(); }
-        result.append(code.substring(lastEnd));
-        return result.toString();}
-    private static String addPythonDocstrings(String code) {
-        StringBuilder result = new StringBuilder();
-        Pattern methodPattern = Pattern.compile("^def\\s+(\\w+)\\s*\\([^)]*\\):", Pattern.MULTILINE);
-        Matcher matcher = methodPattern.matcher(code);
-        int lastEnd = 0;
-        while (matcher.find()) {
-            result.append(code, lastEnd, matcher.start());
-            String methodName = matcher.group(1);
-            result.append("\"\"\"").append("\n")
-                  .append("Function: ").append(methodName).append("\n")
-                  .append("Description: Auto-generated function documentation").append("\n")
-                  .append("Args: Auto-detected").append("\n")
-                  .append("Returns: Auto-detected").append("\n")
-                  .append("\"\"\"").append("\n");
-            result.append(matcher.group());
-            lastEnd = matcher.end();}
-        result.append(code.substring(lastEnd));
-        return result.toString();
-    }
-    private static String addCppComments(String code) {
-        StringBuilder result = new StringBuilder();
-        Pattern methodPattern = Pattern.compile("\\w+\\s+(\\w+)\\s*\\([^)]*\\)\\s*\\{");
-        Matcher matcher = methodPattern.matcher(code);
-        int lastEnd = 0;
-        while (matcher.find()) {
-            result.append(code, lastEnd, matcher.start());
-            String methodName = matcher.group(1);
-            result.append("// ").append(methodName).append(" - Auto-generated documentation").append("\n")
-                  .append("// Parameters: Auto-detected").append("\n")
-                  .append("// Returns: Auto-detected").append("\n");
-            result.append(matcher.group());
-            lastEnd = matcher.end();
-        }
-        result.append(code.substring(lastEnd));
-        return result.toString();}
-    private static String addJsComments(String code) {
-        StringBuilder result = new StringBuilder();
-        Pattern methodPattern = Pattern.compile("(function\\s+(\\w+)\\s*\\([^)]*\\)|(\\w+)\\s*\\([^)]*\\)\\s*=>\\s*\\{)");
-        Matcher matcher = methodPattern.matcher(code);
-        int lastEnd = 0;
-        while (matcher.find()) {
-            result.append(code, lastEnd, matcher.start());
-            String methodName = matcher.group(2) != null ? matcher.group(2) : matcher.group(3);
-            result.append("// ").append(methodName).append(" - Auto-generated documentation").append("\n")
-                  .append("// Parameters: Auto-detected").append("\n")
-                  .append("// Returns: Auto-detected").append("\n");
-            result.append(matcher.group());
-            lastEnd = matcher.end();
-        }
-        result.append(code.substring(lastEnd));
-        return result.toString();
-    }
-    private static String generateFileReport(File file, CodeStructure structure) {
+    private static void appendInOrder(StringBuilder out, SpanList elements, int[] order) {
+        for (int i : order) {
+            elements.appendTo(out, i);
+            out.append("\n");}
+    }
+    private static int[] sortByLength(SpanList elements) {
+        return elements.byLengthDescending();}
+    private static int[] sortByLineCount(MethodTable methods) {
+        return methods.byLinesDescending();}
+    private static String editCode(String code, String extension, RenameMap renames, String replaceFrom, String replaceTo, boolean formatIndent, String transformCase) {
+        return EditPipeline.edit(code, LanguageProfiles.forExtension(extension), renames, replaceFrom, replaceTo, formatIndent, transformCase);}
+    private static FileRecord fileRecord(String fileName, CodeStructure structure) {
+        List<FileRecord.MethodRow> methods = new ArrayList<>(structure.methods.size());
+        for (int i = 0; i < structure.methods.size(); i++) {
+            methods.add(new FileRecord.MethodRow(structure.methods.signature(i), structure.methods.lines(i), structure.methods.parameters(i), structure.methods.returnType(i),
+                    structure.methods.complexity(i), structure.methods.nesting(i)));}
+        return new FileRecord(fileName, structure.fileExtension, structure.metrics.totalLines, structure.metrics.nonBlankLines, structure.metrics.complexity,
+                structure.imports.size(), structure.classes.size(), structure.variables.size(), methods, structure.variableUsage);}
+    private static String generateFileReport(FileRecord record, boolean overran) {
         StringBuilder report = new StringBuilder();
-        report.append("File: ").append(file.getName()).append("\n");
-        report.append("Extension: ").append(structure.fileExtension).append("\n");
-        report.append("Total Lines: ").append(structure.lineCount).append("\n");
-        report.append("Non-blank Lines: ").append(countNonBlankLines(structure.originalCode)).append("\n");
-        report.append("Complexity: ").append(analyzeCodeComplexity(structure.originalCode)).append("\n");
-        report.append("Imports: ").append(structure.imports.size()).append("\n");
-        report.append("Classes: ").append(structure.classes.size()).append("\n");
-        report.append("Methods: ").append(structure.methods.size()).append("\n");
-        report.append("Variables: ").append(structure.variables.size()).append("\n");
+        report.append("File: ").append(record.path).append("\n");
+        report.append("Extension: ").append(record.extension).append("\n");
+        report.append("Total Lines: ").append(record.totalLines).append("\n");
+        report.append("Non-blank Lines: ").append(record.nonBlankLines).append("\n");
+        report.append("Complexity: Cyclomatic Complexity: ").append(record.complexity).append("\n");
+        report.append("Imports: ").append(record.imports).append("\n");
+        report.append("Classes: ").append(record.classes).append("\n");
+        report.append("Methods: ").append(record.methods.size()).append("\n");
+        report.append("Variables: ").append(record.variables).append("\n");
         report.append("Method Details:\n");
-        for (String method : structure.methods) {
-            String signature = structure.methodSignatures.getOrDefault(method, "Unknown");
-            int lines = structure.methodLineCounts.getOrDefault(signature, 0);
-            String params = structure.methodParameters.getOrDefault(signature, "None");
-            String returnType = structure.methodReturnTypes.getOrDefault(signature, "Unknown");
-            report.append("  - ").append(signature).append("\n")
-                  .append("    Lines: ").append(lines).append("\n")
-                  .append("    Parameters: ").append(params).append("\n")
-                  .append("    Return Type: ").append(returnType).append("\n");
+        for (FileRecord.MethodRow method : record.methods) {
+            report.append("  - ").append(method.signature).append("\n")
+                  .append("    Lines: ").append(method.lines).append("\n")
+                  .append("    Parameters: ").append(method.parameters).append("\n")
+                  .append("    Return Type: ").append(method.returnType).append("\n")
+                  .append("    Complexity: ").append(method.complexity).append("\n")
+                  .append("    Nesting Depth: ").append(method.nesting).append("\n");
         }
         report.append("Variable Usage:\n");
-        for (Map.Entry<String, Integer> entry : structure.variableUsage.entrySet()) {
+        for (Map.Entry<String, Integer> entry : record.variableUsage.entrySet()) {
             report.append("  - ").append(entry.getKey()).append(": ").append(entry.getValue()).append(" uses\n");
         }
+        if (overran) {
+            report.append("Regex Budget: exceeded, results are partial and were not cached\n");}
         report.append("----------------------------------------\n");
         return report.toString();
     }
     private static void saveReport(String report) throws IOException {
-        String reportPath = Paths.get(OUTPUT_DIR, REPORT_FILE).toString();
-        Files.write(Paths.get(reportPath), report.getBytes(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
-    }
-    private static void saveIndividualFiles(List<CodeStructure> structures, String replaceFrom, String replaceTo, boolean formatIndent, String transformCase) throws IOException {
-        for (CodeStructure structure : structures) {
-            String restructured = restructureCode(structure);
-            String edited = editCode(restructured, structure.fileExtension, replaceFrom, replaceTo, formatIndent, transformCase);
-            String outputPath = Paths.get(OUTPUT_DIR, "processed_" + UUID.randomUUID() + structure.fileExtension).toString();
-            Files.write(Paths.get(outputPath), edited.getBytes(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-            System.out.println("Saved: " + outputPath);
-        }
-    }
-    private static void concatenateFiles(List<CodeStructure> structures, String replaceFrom, String replaceTo, boolean formatIndent, String transformCase) throws IOException {
-        StringBuilder concatenated = new StringBuilder();
-        for (CodeStructure structure : structures) {
-            String restructured = restructureCode(structure);
-            String edited = editCode(restructured, structure.fileExtension, replaceFrom, replaceTo, formatIndent, transformCase);
-            concatenated.append("// File: ").append(structure.fileExtension).append("\n");
-            concatenated.append(edited).append("\n\n");
-        }
-        String outputPath = Paths.get(OUTPUT_DIR, "concatenated_output.txt").toString();
-        Files.write(Paths.get(outputPath), concatenated.toString().getBytes(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-        System.out.println("Saved concatenated file: " + outputPath);
+        try (Writer writer = openReport(StandardOpenOption.APPEND)) {
+            writer.write(report);}
     }
+    private static Writer openReport(StandardOpenOption mode) throws IOException {
+        return Files.newBufferedWriter(Paths.get(OUTPUT_DIR, REPORT_FILE), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode);}
     private static void validateInputPath(String path) throws IOException {
         File file = new File(path);
         if (!file.exists()) {
             throw new IOException("Path does not exist: " + path);
         }
-        if (!file.isDirectory()) {
-            throw new IOException("Path is not a directory: " + path);}
-    }
-    private static boolean isValidRegex(String regex) {
-        try {
-            Pattern.compile(regex);
-            return true;
-        } catch (PatternSyntaxException e) {
-            return false;}
-    }
-    private static int countNonBlankLines(String code) {
-        String[] lines = code.split("\n");
-        int count = 0;
-        for (String line : lines) {
-            if (!line.trim().isEmpty()) {
-                count++;}
-        }
-        return count;}
-    private static String analyzeCodeComplexity(String code) {
-        int cyclomaticComplexity = 1;
-        Pattern controlFlowPattern = Pattern.compile("\\b(if|else|while|for|switch|case|try|catch)\\b");
-        Matcher matcher = controlFlowPattern.matcher(code);
-        while (matcher.find()) {
-            cyclomaticComplexity++;}
-        return "Cyclomatic Complexity: " + cyclomaticComplexity;
+        if (!file.isDirectory() && !(file.isFile() && SourceArchive.isArchive(file.toPath()))) {
+            throw new IOException("Path is not a directory or a .zip, .jar, .tar, .tar.gz or .tgz archive: " + path);}
     }
-    private static void logProcessingStart(File file) {
-        System.out.println("Starting processing for: " + file.getName() + " at " + new Date());
+    private static void logProcessingStart(String fileName) {
+        System.out.println("Starting processing for: " + fileName + " at " + new Date());
     }
-    private static void logProcessingEnd(File file) {
-        System.out.println("Finished processing: " + file.getName() + " at " + new Date());
-    }
-    private static void logError(String errorMessage) {
-        try {
-            String errorLog = Paths.get(OUTPUT_DIR, "error_log.txt").toString();
-            Files.write(Paths.get(errorLog), (new Date() + ": " + errorMessage + "\n").getBytes(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
-        } catch (IOException e) {
-            System.out.println("Failed to log error: " + e.getMessage());}
+    private static void logProcessingEnd(String fileName) {
+        System.out.println("Finished processing: " + fileName + " at " + new Date());
     }
+    static void logError(String errorMessage) {
+        ErrorLog.log(errorMessage);}
     private static String reformatCodePatterns(String code, String extension) {
-        switch (extension) {
-            case ".java":
-                return reformatJavaPatterns(code);
-            case ".py":
-                return reformatPythonPatterns(code);
-            case ".cpp":
-                return reformatCppPatterns(code);
-            case ".js":
-                return reformatJsPatterns(code);
-            default:
-                return code;}
-    }
-    private static String reformatJavaPatterns(String code) {
-        String reformatted = code.replaceAll("System\\.out\\.println\\(", "System.out.print(");
-        return reformatted;}
-    private static String reformatPythonPatterns(String code) {
-        String reformatted = code.replaceAll("print\\(", "print(");
-        return reformatted;}
-    private static String reformatCppPatterns(String code) {
-        String reformatted = code.replaceAll("std::cout\\s*<<", "std::cout << ");
-        return reformatted;}
-    private static String reformatJsPatterns(String code) {
-        String reformatted = code.replaceAll("console\\.log\\(", "console.log(");
-        return reformatted;}
+        return LanguageProfiles.forExtension(extension).reformatPatterns(code);}
     private static String validateCodeStructure(String code, String extension) {
-        switch (extension) {
-            case ".java":
-                return validateJavaStructure(code);
-            case ".py":
-                return validatePythonStructure(code);
-            case ".cpp":
-                return validateCppStructure(code);
-            case ".js":
-                return validateJsStructure(code);
-            default:
-                return code;}
-    }
-    private static String validateJavaStructure(String code) {
-        if (!code.contains("{")) {
-            logError("Invalid Java structure: Missing opening brace");
-            return code;}
-        if (!code.contains("}")) {
-            logError("Invalid Java structure: Missing closing brace");
-            return code;}
-        return code;
-    }
-    private static String validatePythonStructure(String code) {
-        Pattern defPattern = Pattern.compile("^def\\s+\\w+\\s*\\([^)]*\\):", Pattern.MULTILINE);
-        Matcher matcher = defPattern.matcher(code);
-        while (matcher.find()) {
-            String defLine = matcher.group();
-            if (!defLine.endsWith(":")) {
-                logError("Invalid Python structure: Function definition missing colon");
-            }
-        }
-        return code;}
-    private static String validateCppStructure(String code) {
-        if (!code.contains("{")) {
-            logError("Invalid C++ structure: Missing opening brace");
-            return code;}
-        if (!code.contains("}")) {
-            logError("Invalid C++ structure: Missing closing brace");
-            return code;}
-        return code;
-    }
-    private static String validateJsStructure(String code) {
-        Pattern funcPattern = Pattern.compile("(function\\s+\\w+\\s*\\([^)]*\\)|\\w+\\s*\\([^)]*\\)\\s*=>\\s*\\{)");
-        Matcher matcher = funcPattern.matcher(code);
-        while (matcher.find()) {
-            String funcLine = matcher.group();
-            if (!funcLine.contains("(") || !funcLine.contains(")")) {
-                logError("Invalid JavaScript structure: Function definition missing parentheses");}
-        }
-        return code;}
+        return LanguageProfiles.forExtension(extension).validateStructure(code);}
     private static String generateCodeMetrics(CodeStructure structure) {
         StringBuilder metrics = new StringBuilder();
         metrics.append("Code Metrics for ").append(structure.fileExtension).append("\n");
-        metrics.append("Total Lines: ").append(structure.lineCount).append("\n");
-        metrics.append("Non-blank Lines: ").append(countNonBlankLines(structure.originalCode)).append("\n");
-        metrics.append("Complexity: ").append(analyzeCodeComplexity(structure.originalCode)).append("\n");
+        metrics.append("Total Lines: ").append(structure.metrics.totalLines).append("\n");
+        metrics.append("Blank Lines: ").append(structure.metrics.blankLines).append("\n");
+        metrics.append("Non-blank Lines: ").append(structure.metrics.nonBlankLines).append("\n");
+        metrics.append("Complexity: Cyclomatic Complexity: ").append(structure.metrics.complexity).append("\n");
         metrics.append("Variable Usage Frequency:\n");
         for (Map.Entry<String, Integer> entry : structure.variableUsage.entrySet()) {
             metrics.append("  - ").append(entry.getKey()).append(": ").append(entry.getValue()).append(" uses\n");
         }
         return metrics.toString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,28 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+final class BinaryReportSink extends RotatingReportSink {
+    static final int MAGIC = 0x41435052;
+    static final int VERSION = 2;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+    private final DataOutputStream data = new DataOutputStream(buffer);
+    BinaryReportSink(Path directory, String baseName, long maxBytes, boolean append) throws IOException {
+        super(directory, baseName, ".bin", maxBytes, append);}
+    @Override
+    byte[] header() {
+        return new byte[]{(byte) (MAGIC >>> 24), (byte) (MAGIC >>> 16), (byte) (MAGIC >>> 8), (byte) MAGIC, 0, 0, 0, VERSION};}
+    @Override
+    byte[] encode(FileRecord record) throws IOException {
+        buffer.reset();
+        data.writeInt(0);
+        record.writeTo(data);
+        data.flush();
+        byte[] bytes = buffer.toByteArray();
+        int length = bytes.length - 4;
+        bytes[0] = (byte) (length >>> 24);
+        bytes[1] = (byte) (length >>> 16);
+        bytes[2] = (byte) (length >>> 8);
+        bytes[3] = (byte) length;
+        return bytes;}
+}
@@ -0,0 +1,569 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+final class BraceScanner {
+    enum Dialect {
+        JAVA(Pattern.compile("(?<![\\w.$])(class|interface|enum|record)\\s+[\\w$]+"), Pattern.compile("\\s*(throws\\s+[\\w$.<>,?\\s]+)?")),
+        CPP(Pattern.compile("(?<![\\w.$])(class|struct|union)\\s+[\\w$]+"), Pattern.compile("\\s*((const|volatile|noexcept|override|final|&&|&)\\s*)*(->\\s*[\\w:<>,*&\\s]+)?")),
+        JS(Pattern.compile("(?<![\\w.$])class(\\s+[\\w$]+)?(\\s+extends\\s+[\\w$.]+)?\\s*$"), Pattern.compile("\\s*"));
+        final Pattern classHeader;
+        final Pattern methodTail;
+        Dialect(Pattern classHeader, Pattern methodTail) {
+            this.classHeader = classHeader;
+            this.methodTail = methodTail;}
+    }
+    private static final Pattern INCLUDE = Pattern.compile("#include\\s+[<\"][^>\"]+[>\"]");
+    private static final int MAX_HEADER = 4096;
+    private static final String[] CONTROL_WORDS = {"if", "for", "while", "switch", "catch", "synchronized", "try", "do", "else", "return", "new", "throw", "super", "this", "with", "sizeof", "decltype", "alignof", "static_assert", "delete", "case", "typeof", "await", "yield", "function"};
+    private static final String[] STATEMENT_WORDS = {"return", "throw", "new", "else", "case", "goto", "break", "continue", "import", "package", "using", "typedef", "delete", "assert", "yield", "default", "do", "namespace", "template", "friend", "operator", "typeof", "await", "instanceof"};
+    private static final String[] ACCESS_LABELS = {"public", "private", "protected", "default"};
+    private static final String[] JS_METHOD_MODIFIERS = {"static", "async", "get", "set", "function", "export", "default", "*"};
+    private static final int BLOCK = 0;
+    private static final int EXPRESSION = 1;
+    private static final int CLASS = 2;
+    private static final int METHOD = 3;
+    private static final class Frame {
+        final int kind;
+        final int start;
+        final int parenDepth;
+        final int[] method;
+        Frame(int kind, int start, int parenDepth, int[] method) {
+            this.kind = kind;
+            this.start = start;
+            this.parenDepth = parenDepth;
+            this.method = method;}
+    }
+    private final CharSequence code;
+    private final Dialect dialect;
+    private final int length;
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private final List<int[]> imports = new ArrayList<>();
+    private final List<int[]> classes = new ArrayList<>();
+    private final List<int[]> variables = new ArrayList<>();
+    private final List<int[]> methods = new ArrayList<>();
+    private int methodDepth;
+    private int parenDepth;
+    private int stmtStart = -1;
+    private int stmtAssign = -1;
+    private int lastSig = -1;
+    private int headerStart = -1;
+    private int headerAssign = -1;
+    private int headerFrames;
+    private boolean headerFor;
+    private BraceScanner(CharSequence code, Dialect dialect) {
+        this.code = code;
+        this.dialect = dialect;
+        this.length = code.length();}
+    static void scan(AdvancedCodeProcessor.CodeStructure structure, CharSequence code, Dialect dialect) {
+        BraceScanner scanner = new BraceScanner(code, dialect);
+        scanner.run();
+        for (int[] span : scanner.imports) {
+            structure.imports.add(span[0], span[1]);}
+        scanner.classes.sort((a, b) -> Integer.compare(a[0], b[0]));
+        for (int[] span : scanner.classes) {
+            structure.classes.add(span[0], span[1]);}
+        scanner.methods.sort((a, b) -> Integer.compare(a[0], b[0]));
+        for (int[] m : scanner.methods) {
+            structure.methods.add(m[0], m[1], m[2], m[3], m[4], m[5], m[6], m[7], m[8]);}
+        for (int[] span : scanner.variables) {
+            structure.variables.add(span[0], span[1]);}
+    }
+    private void run() {
+        boolean lineStart = true;
+        for (int i = 0; i < length; i++) {
+            char c = code.charAt(i);
+            if (c == '\n') {
+                lineStart = true;
+                if (dialect == Dialect.JS) {
+                    insertSemicolon();}
+                continue;}
+            if (Character.isWhitespace(c)) {
+                continue;}
+            char next = i + 1 < length ? code.charAt(i + 1) : '\0';
+            if (c == '/' && next == '/') {
+                i = lineEnd(i) - 1;
+                continue;}
+            if (c == '/' && next == '*') {
+                int close = CharSequences.indexOf(code, "*/", i + 2);
+                i = close < 0 ? length : close + 1;
+                continue;}
+            if (c == '#' && lineStart && dialect == Dialect.CPP) {
+                i = directive(i) - 1;
+                continue;}
+            lineStart = false;
+            if (stmtStart < 0) {
+                stmtStart = i;}
+            if (c == '"' || c == '\'' || (c == '`' && dialect == Dialect.JS)) {
+                i = skipLiteral(i);
+                lastSig = i;
+                continue;}
+            if (c == '/' && dialect == Dialect.JS && regexAllowed()) {
+                int end = skipRegex(i);
+                if (end > i) {
+                    i = end;
+                    lastSig = i;
+                    continue;}
+            }
+            switch (c) {
+                case '(':
+                    parenDepth++;
+                    if (parenDepth == 1 && opensHeader(i)) {
+                        headerStart = i + 1;
+                        headerAssign = -1;
+                        headerFrames = frames.size();
+                        headerFor = code.charAt(stmtStart) == 'f';}
+                    break;
+                case ')':
+                    parenDepth = Math.max(0, parenDepth - 1);
+                    if (parenDepth == 0 && inHeader()) {
+                        if (!headerFor || dialect == Dialect.JS) {
+                            endDeclarator(i, i);}
+                        headerStart = -1;}
+                    break;
+                case '=':
+                    if (stmtAssign < 0 && parenDepth == 0 && isAssignment(i)) {
+                        stmtAssign = i;
+                    } else if (headerAssign < 0 && parenDepth == 1 && inHeader() && isAssignment(i)) {
+                        headerAssign = i;}
+                    break;
+                case '{':
+                    openBrace(i);
+                    break;
+                case '}':
+                    i = closeBrace(i);
+                    break;
+                case ';':
+                    if (parenDepth == 0 && !inExpression()) {
+                        endStatement(i + 1);
+                    } else if (parenDepth == 1 && inHeader()) {
+                        endDeclarator(i, i + 1);
+                        if (headerFor) {
+                            headerStart = -1;}
+                    }
+                    break;
+                case ':':
+                    if (parenDepth == 0 && !inExpression() && isLabel(i)) {
+                        resetStatement();
+                        lastSig = i;
+                        continue;}
+                    if (parenDepth == 1 && headerFor && headerAssign < 0 && dialect != Dialect.JS && inHeader() && !isScope(i)) {
+                        endDeclarator(i, i);
+                        headerStart = -1;}
+                    break;
+                default:
+                    break;}
+            lastSig = i;
+        }
+    }
+    private boolean inExpression() {
+        Frame top = frames.peek();
+        return top != null && top.kind == EXPRESSION;}
+    private void resetStatement() {
+        stmtStart = -1;
+        stmtAssign = -1;
+        headerStart = -1;}
+    private boolean opensHeader(int paren) {
+        if (stmtStart < 0 || inExpression() || !(startsWithWord(stmtStart, "for") || startsWithWord(stmtStart, "try"))) {
+            return false;}
+        return skipSpace(identifierEnd(stmtStart)) == paren;}
+    private boolean inHeader() {
+        return headerStart >= 0 && frames.size() == headerFrames;}
+    private void openBrace(int i) {
+        if (inExpression() || parenDepth > 0) {
+            frames.push(new Frame(EXPRESSION, i, parenDepth, null));
+            return;}
+        int start = stmtStart;
+        String header = start >= 0 && start < i && i - start <= MAX_HEADER ? CharSequences.substring(code, start, i) : "";
+        String trimmed = header.trim();
+        if (dialect == Dialect.JS && trimmed.endsWith("=>")) {
+            int[] method = arrowFunction(start, trimmed, i);
+            if (method == null) {
+                frames.push(new Frame(EXPRESSION, i, parenDepth, null));
+                return;}
+            resetStatement();
+            methodDepth++;
+            frames.push(new Frame(METHOD, start, parenDepth, method));
+            return;}
+        if (stmtAssign >= 0 || trimmed.endsWith("->") || endsWithAny(trimmed, "=,([?:]") || isImportList(trimmed)) {
+            frames.push(new Frame(EXPRESSION, i, parenDepth, null));
+            return;}
+        resetStatement();
+        if (trimmed.isEmpty()) {
+            frames.push(new Frame(BLOCK, i, parenDepth, null));
+            return;}
+        int declStart = start + declarationOffset(header);
+        if (methodDepth == 0 && dialect.classHeader.matcher(trimmed).find()) {
+            frames.push(new Frame(CLASS, declStart, parenDepth, null));
+            return;}
+        int[] method = methodHeader(start, header, declStart);
+        if (method != null) {
+            methodDepth++;
+            frames.push(new Frame(METHOD, declStart, parenDepth, method));
+            return;}
+        frames.push(new Frame(BLOCK, i, parenDepth, null));
+    }
+    private int closeBrace(int i) {
+        Frame frame = frames.poll();
+        if (frame == null) {
+            resetStatement();
+            return i;}
+        parenDepth = frame.parenDepth;
+        if (frame.kind == EXPRESSION) {
+            return i;}
+        int end = i + 1;
+        if (frame.kind == CLASS) {
+            if (dialect == Dialect.CPP) {
+                int semi = skipSpace(end);
+                if (semi < length && code.charAt(semi) == ';') {
+                    end = semi + 1;}
+            }
+            classes.add(new int[]{frame.start, end});
+        } else if (frame.kind == METHOD) {
+            methodDepth--;
+            if (methodDepth == 0) {
+                int[] m = frame.method;
+                methods.add(new int[]{m[0], m[1], end, m[2], m[3], m[4], m[5], m[6], m[7]});}
+        }
+        resetStatement();
+        lastSig = end - 1;
+        return end - 1;}
+    private void insertSemicolon() {
+        if (stmtStart < 0 || lastSig < stmtStart || parenDepth > 0 || inExpression()) {
+            return;}
+        if (",=([{.+-*/%&|^!?:<>~".indexOf(code.charAt(lastSig)) >= 0) {
+            return;}
+        endStatement(lastSig + 1);}
+    private void endStatement(int end) {
+        int start = stmtStart;
+        int assign = stmtAssign;
+        resetStatement();
+        if (start < 0 || start >= end) {
+            return;}
+        if (startsWithWord(start, "import")) {
+            imports.add(new int[]{start, end});
+            return;}
+        if (dialect == Dialect.JS && CharSequences.substring(code, start, end).contains("require(")) {
+            imports.add(new int[]{start, end});
+            return;}
+        addDeclaration(start, assign, end - 1, end);}
+    private void endDeclarator(int terminator, int end) {
+        int start = skipSpace(headerStart);
+        int assign = headerAssign;
+        headerStart = terminator + 1;
+        headerAssign = -1;
+        while (end == terminator && end > start && Character.isWhitespace(code.charAt(end - 1))) {
+            end--;
+            terminator--;}
+        if (start < terminator) {
+            addDeclaration(start, assign, terminator, end);}
+    }
+    private void addDeclaration(int start, int assign, int terminator, int end) {
+        if (dialect == Dialect.JS) {
+            if (startsWithWord(start, "let") || startsWithWord(start, "const") || startsWithWord(start, "var")) {
+                variables.add(new int[]{start, end});}
+            return;}
+        int lhsEnd = assign >= 0 ? assign : terminator;
+        int declStart = start + declarationOffset(CharSequences.substring(code, start, lhsEnd));
+        if (isDeclaration(declStart, lhsEnd)) {
+            variables.add(new int[]{declStart, end});}
+    }
+    private boolean isDeclaration(int start, int end) {
+        int i = end - 1;
+        while (i >= start && Character.isWhitespace(code.charAt(i))) {
+            i--;}
+        int nameEnd = i + 1;
+        while (i >= start && isIdentifierPart(code.charAt(i))) {
+            i--;}
+        int nameStart = i + 1;
+        if (nameStart == nameEnd || !isIdentifierStart(code.charAt(nameStart)) || isWord(nameStart, nameEnd, CONTROL_WORDS)) {
+            return false;}
+        while (i >= start && (Character.isWhitespace(code.charAt(i)) || code.charAt(i) == '*' || code.charAt(i) == '&' || code.charAt(i) == '[' || code.charAt(i) == ']')) {
+            i--;}
+        if (i < start || nameStart == i + 1 || code.charAt(i) == ',') {
+            return false;}
+        for (int k = start; k <= i; k++) {
+            char ch = code.charAt(k);
+            if (ch == '(' || ch == ')' || ch == '=' || ch == '{' || ch == '}' || ch == '"' || ch == '\'' || ch == '+' || ch == '-' || ch == '|' || ch == '!' || ch == '/' || ch == '%' || ch == ';') {
+                return false;}
+        }
+        int typeStart = tokenStart(start, i + 1);
+        if (!isIdentifierStart(code.charAt(typeStart))) {
+            return false;}
+        int firstEnd = start;
+        while (firstEnd <= i && isIdentifierPart(code.charAt(firstEnd))) {
+            firstEnd++;}
+        return !isWord(start, firstEnd, STATEMENT_WORDS) && !isWord(typeStart, identifierEnd(typeStart), STATEMENT_WORDS);}
+    private int[] methodHeader(int start, String header, int declStart) {
+        int close = header.lastIndexOf(')');
+        if (close < 0 || !dialect.methodTail.matcher(header.substring(close + 1)).matches()) {
+            return null;}
+        int open = matchingOpen(header, close);
+        if (open < 0) {
+            return null;}
+        int k = open - 1;
+        while (k >= 0 && Character.isWhitespace(header.charAt(k))) {
+            k--;}
+        int nameEnd = k + 1;
+        while (k >= 0 && (isIdentifierPart(header.charAt(k)) || (dialect == Dialect.CPP && (header.charAt(k) == ':' || header.charAt(k) == '~')))) {
+            k--;}
+        int nameStart = k + 1;
+        if (nameStart == nameEnd || isWord(header, nameStart, nameEnd, CONTROL_WORDS)) {
+            return null;}
+        String name = header.substring(nameStart, nameEnd);
+        String prefix = header.substring(declStart - start, nameStart).trim();
+        int typeStart = -1;
+        int typeEnd = -1;
+        if (dialect == Dialect.JS) {
+            for (String token : prefix.isEmpty() ? new String[0] : prefix.split("\\s+")) {
+                if (!contains(JS_METHOD_MODIFIERS, token)) {
+                    return null;}
+            }
+            if (prefix.isEmpty() && !enclosedBy(CLASS)) {
+                return null;}
+        } else if (prefix.isEmpty()) {
+            if (dialect != Dialect.CPP || !(name.contains("::") || enclosedBy(CLASS))) {
+                return null;}
+        } else {
+            int end = nameStart;
+            while (end > 0 && Character.isWhitespace(header.charAt(end - 1))) {
+                end--;}
+            int tokenStart = tokenStart(header, declStart - start, end);
+            String type = header.substring(tokenStart, end);
+            if (type.isEmpty() || !(isIdentifierStart(type.charAt(0)) || type.charAt(0) == '<') || contains(STATEMENT_WORDS, type) || prefix.contains("=") || prefix.contains("(")) {
+                return null;}
+            typeStart = start + tokenStart;
+            typeEnd = start + end;}
+        return new int[]{declStart, start + header.length(), start + nameStart, start + nameEnd, start + open + 1, start + close, typeStart, typeEnd};}
+    private int[] arrowFunction(int start, String trimmed, int brace) {
+        String body = trimmed.substring(0, trimmed.length() - 2).trim();
+        int paramsStart;
+        int paramsEnd;
+        int left;
+        if (body.endsWith(")")) {
+            int open = matchingOpen(body, body.length() - 1);
+            if (open < 0) {
+                return null;}
+            paramsStart = open + 1;
+            paramsEnd = body.length() - 1;
+            left = open;
+        } else {
+            int k = body.length();
+            while (k > 0 && isIdentifierPart(body.charAt(k - 1))) {
+                k--;}
+            if (k == body.length()) {
+                return null;}
+            paramsStart = k;
+            paramsEnd = body.length();
+            left = k;}
+        String head = body.substring(0, left).trim();
+        if (head.endsWith("async")) {
+            head = head.substring(0, head.length() - 5).trim();}
+        if (head.endsWith("=")) {
+            head = head.substring(0, head.length() - 1).trim();}
+        int nameEnd = head.length();
+        int nameStart = nameEnd;
+        while (nameStart > 0 && isIdentifierPart(head.charAt(nameStart - 1))) {
+            nameStart--;}
+        if (nameStart == nameEnd) {
+            return null;}
+        return new int[]{start, brace, start + nameStart, start + nameEnd, start + paramsStart, start + paramsEnd, -1, -1};}
+    private boolean enclosedBy(int kind) {
+        Frame top = frames.peek();
+        return top != null && top.kind == kind;}
+    private int declarationOffset(String header) {
+        int i = 0;
+        int n = header.length();
+        while (true) {
+            while (i < n && Character.isWhitespace(header.charAt(i))) {
+                i++;}
+            if (i < n && header.charAt(i) == '@' && !header.startsWith("@interface", i)) {
+                i++;
+                while (i < n && (isIdentifierPart(header.charAt(i)) || header.charAt(i) == '.')) {
+                    i++;}
+                int j = i;
+                while (j < n && Character.isWhitespace(header.charAt(j))) {
+                    j++;}
+                if (j < n && header.charAt(j) == '(') {
+                    int close = matchingClose(header, j);
+                    i = close < 0 ? n : close + 1;}
+                continue;}
+            return Math.min(i, n);}
+    }
+    private int directive(int i) {
+        int end = i;
+        while (true) {
+            end = lineEnd(end);
+            int k = end - 1;
+            while (k > i && code.charAt(k) == '\r') {
+                k--;}
+            if (k > i && code.charAt(k) == '\\' && end < length) {
+                end++;
+                continue;}
+            break;}
+        Matcher matcher = INCLUDE.matcher(code).region(i, end);
+        if (matcher.lookingAt()) {
+            imports.add(new int[]{i, matcher.end()});}
+        return end;}
+    private int skipLiteral(int i) {
+        char quote = code.charAt(i);
+        if (quote == '"' && dialect == Dialect.JAVA && CharSequences.startsWith(code, "\"\"\"", i)) {
+            int j = i + 3;
+            while (j < length) {
+                if (code.charAt(j) == '\\') {
+                    j += 2;
+                    continue;}
+                if (CharSequences.startsWith(code, "\"\"\"", j)) {
+                    return j + 2;}
+                j++;}
+            return length - 1;}
+        if (quote == '"' && dialect == Dialect.CPP && i > 0 && code.charAt(i - 1) == 'R') {
+            int open = CharSequences.indexOf(code, '(', i);
+            if (open > 0 && open - i <= 17) {
+                String terminator = ")" + CharSequences.substring(code, i + 1, open) + "\"";
+                int close = CharSequences.indexOf(code, terminator, open);
+                return close < 0 ? length - 1 : close + terminator.length() - 1;}
+        }
+        int j = i + 1;
+        while (j < length) {
+            char ch = code.charAt(j);
+            if (ch == '\\') {
+                j += 2;
+                continue;}
+            if (ch == quote) {
+                return j;}
+            if (ch == '\n' && quote != '`') {
+                return j - 1;}
+            if (quote == '`' && ch == '$' && j + 1 < length && code.charAt(j + 1) == '{') {
+                j = skipInterpolation(j + 1) + 1;
+                continue;}
+            j++;}
+        return length - 1;}
+    private int skipInterpolation(int open) {
+        int depth = 0;
+        for (int j = open; j < length; j++) {
+            char ch = code.charAt(j);
+            if (ch == '"' || ch == '\'' || ch == '`') {
+                j = skipLiteral(j);
+            } else if (ch == '{') {
+                depth++;
+            } else if (ch == '}' && --depth == 0) {
+                return j;}
+        }
+        return length - 1;}
+    private boolean regexAllowed() {
+        if (lastSig < 0) {
+            return true;}
+        char prev = code.charAt(lastSig);
+        if ("(,=:[!&|?{};+-*%<>~^".indexOf(prev) >= 0) {
+            return true;}
+        int end = lastSig + 1;
+        int begin = end;
+        while (begin > 0 && isIdentifierPart(code.charAt(begin - 1))) {
+            begin--;}
+        return isWord(begin, end, new String[]{"return", "typeof", "case", "do", "else", "in", "of", "void", "yield", "await"});}
+    private int skipRegex(int i) {
+        boolean inClass = false;
+        for (int j = i + 1; j < length; j++) {
+            char ch = code.charAt(j);
+            if (ch == '\n') {
+                return i;}
+            if (ch == '\\') {
+                j++;
+            } else if (ch == '[') {
+                inClass = true;
+            } else if (ch == ']') {
+                inClass = false;
+            } else if (ch == '/' && !inClass) {
+                while (j + 1 < length && Character.isLetter(code.charAt(j + 1))) {
+                    j++;}
+                return j;}
+        }
+        return i;}
+    private boolean isAssignment(int i) {
+        char prev = i > 0 ? code.charAt(i - 1) : '\0';
+        char next = i + 1 < length ? code.charAt(i + 1) : '\0';
+        return next != '=' && next != '>' && prev != '=' && prev != '!' && prev != '<' && prev != '>';}
+    private boolean isImportList(String trimmed) {
+        return dialect == Dialect.JS && (trimmed.startsWith("import") || trimmed.equals("export"));}
+    private boolean isLabel(int colon) {
+        if (stmtStart < 0 || isScope(colon)) {
+            return false;}
+        int end = colon;
+        while (end > stmtStart && code.charAt(end - 1) <= ' ') {
+            end--;}
+        return isWord(stmtStart, end, ACCESS_LABELS) || (stmtStart + 4 < end && CharSequences.startsWith(code, "case", stmtStart) && " '\"".indexOf(code.charAt(stmtStart + 4)) >= 0);}
+    private boolean isScope(int colon) {
+        return (colon + 1 < length && code.charAt(colon + 1) == ':') || (colon > 0 && code.charAt(colon - 1) == ':');}
+    private boolean startsWithWord(int start, String word) {
+        int end = start + word.length();
+        return CharSequences.startsWith(code, word, start) && (end >= length || !isIdentifierPart(code.charAt(end)));}
+    private int lineEnd(int i) {
+        int end = CharSequences.indexOf(code, '\n', i);
+        return end < 0 ? length : end;}
+    private int skipSpace(int i) {
+        while (i < length && Character.isWhitespace(code.charAt(i))) {
+            i++;}
+        return i;}
+    private int identifierEnd(int i) {
+        while (i < length && isIdentifierPart(code.charAt(i))) {
+            i++;}
+        return i;}
+    private int tokenStart(int floor, int end) {
+        return tokenStart(code, floor, end);}
+    private static int tokenStart(CharSequence text, int floor, int end) {
+        int depth = 0;
+        int k = end;
+        while (k > floor) {
+            char ch = text.charAt(k - 1);
+            if (ch == '>') {
+                depth++;
+            } else if (ch == '<') {
+                depth--;
+            } else if (depth <= 0 && Character.isWhitespace(ch)) {
+                break;}
+            k--;}
+        return k;}
+    private static int matchingOpen(String text, int close) {
+        int depth = 0;
+        for (int k = close; k >= 0; k--) {
+            char ch = text.charAt(k);
+            if (ch == ')') {
+                depth++;
+            } else if (ch == '(' && --depth == 0) {
+                return k;}
+        }
+        return -1;}
+    private static int matchingClose(String text, int open) {
+        int depth = 0;
+        for (int k = open; k < text.length(); k++) {
+            char ch = text.charAt(k);
+            if (ch == '(') {
+                depth++;
+            } else if (ch == ')' && --depth == 0) {
+                return k;}
+        }
+        return -1;}
+    private static boolean endsWithAny(String text, String chars) {
+        return !text.isEmpty() && chars.indexOf(text.charAt(text.length() - 1)) >= 0;}
+    private static boolean isIdentifierStart(char ch) {
+        return Character.isLetter(ch) || ch == '_' || ch == '$';}
+    private static boolean isIdentifierPart(char ch) {
+        return Character.isLetterOrDigit(ch) || ch == '_' || ch == '$';}
+    private boolean isWord(int start, int end, String[] words) {
+        return isWord(code, start, end, words);}
+    private static boolean isWord(CharSequence text, int start, int end, String[] words) {
+        for (String word : words) {
+            if (word.length() == end - start && CharSequences.startsWith(text, word, start)) {
+                return true;}
+        }
+        return false;}
+    private static boolean contains(String[] words, String token) {
+        for (String word : words) {
+            if (word.equals(token)) {
+                return true;}
+        }
+        return false;}
+}
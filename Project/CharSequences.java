@@ -0,0 +1,72 @@
+import java.nio.CharBuffer;
+final class CharSequences {
+    private CharSequences() {
+    }
+    static int indexOf(CharSequence text, char target, int from) {
+        if (text instanceof String) {
+            return ((String) text).indexOf(target, from);}
+        for (int i = Math.max(0, from); i < text.length(); i++) {
+            if (text.charAt(i) == target) {
+                return i;}
+        }
+        return -1;}
+    static int indexOf(CharSequence text, String target, int from) {
+        if (text instanceof String) {
+            return ((String) text).indexOf(target, from);}
+        if (target.isEmpty()) {
+            return Math.min(Math.max(0, from), text.length());}
+        char first = target.charAt(0);
+        int last = text.length() - target.length();
+        for (int i = Math.max(0, from); i <= last; i++) {
+            if (text.charAt(i) == first && startsWith(text, target, i)) {
+                return i;}
+        }
+        return -1;}
+    static int indexOf(CharSequence text, String target, int from, int to) {
+        if (target.isEmpty()) {
+            return from <= to ? Math.max(0, from) : -1;}
+        char first = target.charAt(0);
+        int last = Math.min(to, text.length()) - target.length();
+        for (int i = Math.max(0, from); i <= last; i++) {
+            if (text.charAt(i) == first && startsWith(text, target, i)) {
+                return i;}
+        }
+        return -1;}
+    static boolean startsWith(CharSequence text, String prefix, int offset) {
+        if (text instanceof String) {
+            return ((String) text).startsWith(prefix, offset);}
+        if (offset < 0 || offset + prefix.length() > text.length()) {
+            return false;}
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text.charAt(offset + i) != prefix.charAt(i)) {
+                return false;}
+        }
+        return true;}
+    static int lastIndexOf(CharSequence text, char target, int from) {
+        if (text instanceof String) {
+            return ((String) text).lastIndexOf(target, from);}
+        for (int i = Math.min(from, text.length() - 1); i >= 0; i--) {
+            if (text.charAt(i) == target) {
+                return i;}
+        }
+        return -1;}
+    static boolean contains(CharSequence text, String target) {
+        return indexOf(text, target, 0) >= 0;}
+    static String substring(CharSequence text, int start, int end) {
+        return text.subSequence(start, end).toString();}
+    static String trimmed(CharSequence text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;}
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;}
+        return substring(text, start, end);}
+    static CharSequence view(CharSequence text, int start, int end) {
+        return text instanceof String ? CharBuffer.wrap(text, start, end) : text.subSequence(start, end);}
+    static int lineCount(CharSequence text, int start, int end) {
+        int lines = 1;
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == '\n') {
+                lines++;}
+        }
+        return lines;}
+}
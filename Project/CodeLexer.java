@@ -0,0 +1,76 @@
+final class CodeLexer {
+    private static final int CODE = 0;
+    private static final int LINE_COMMENT = 1;
+    private static final int BLOCK_COMMENT = 2;
+    private static final int STRING = 3;
+    private static final int TRIPLE_STRING = 4;
+    private final CharSequence code;
+    private final int length;
+    private final String lineComment;
+    private final boolean blockComments;
+    private final String quotes;
+    private final boolean tripleQuotes;
+    private int state = CODE;
+    private char quote;
+    private int skip;
+    CodeLexer(CharSequence code, LanguageProfile profile) {
+        this.code = code;
+        this.length = code.length();
+        this.lineComment = profile.lineComment();
+        this.blockComments = profile.blockComments();
+        this.quotes = profile.quotes();
+        this.tripleQuotes = profile.tripleQuotes();}
+    boolean inCode() {
+        return state == CODE;}
+    boolean step(int i) {
+        if (skip > 0) {
+            skip--;
+            return false;}
+        char c = code.charAt(i);
+        switch (state) {
+            case CODE:
+                return code(c, i);
+            case LINE_COMMENT:
+                if (c == '\n') {
+                    state = CODE;}
+                return false;
+            case BLOCK_COMMENT:
+                if (c == '*' && next(i) == '/') {
+                    state = CODE;
+                    skip = 1;}
+                return false;
+            case STRING:
+                if (c == '\\') {
+                    skip = 1;
+                } else if (c == quote || (c == '\n' && quote != '`')) {
+                    state = CODE;}
+                return false;
+            default:
+                if (c == '\\') {
+                    skip = 1;
+                } else if (c == quote && next(i) == quote && i + 2 < length && code.charAt(i + 2) == quote) {
+                    state = CODE;
+                    skip = 2;}
+                return false;}
+    }
+    private boolean code(char c, int i) {
+        if (Character.isLetterOrDigit(c) || c == '_') {
+            return true;}
+        if (CharSequences.startsWith(code, lineComment, i)) {
+            state = LINE_COMMENT;
+        } else if (blockComments && c == '/' && next(i) == '*') {
+            state = BLOCK_COMMENT;
+            skip = 1;
+        } else if (quotes.indexOf(c) >= 0) {
+            quote = c;
+            if (tripleQuotes && next(i) == c && i + 2 < length && code.charAt(i + 2) == c) {
+                state = TRIPLE_STRING;
+                skip = 2;
+            } else {
+                state = STRING;}
+        } else {
+            return true;}
+        return false;}
+    private char next(int i) {
+        return i + 1 < length ? code.charAt(i + 1) : '\0';}
+}
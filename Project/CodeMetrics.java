@@ -0,0 +1,125 @@
+import java.util.Arrays;
+final class CodeMetrics {
+    private static final String[] DECISION_WORDS = {"if", "else", "while", "for", "switch", "case", "try", "catch"};
+    final int totalLines;
+    final int blankLines;
+    final int nonBlankLines;
+    final int complexity;
+    private CodeMetrics(int totalLines, int nonBlankLines, int complexity) {
+        this.totalLines = totalLines;
+        this.blankLines = totalLines - nonBlankLines;
+        this.nonBlankLines = nonBlankLines;
+        this.complexity = complexity;}
+    static CodeMetrics collect(CharSequence code, LanguageProfile profile, MethodTable methods) {
+        return new Collector(code, profile, methods).run();}
+    private static final class Collector {
+        private final CharSequence code;
+        private final int length;
+        private final MethodTable methods;
+        private final CodeLexer lexer;
+        private final boolean indentBlocks;
+        private int wordStart = -1;
+        private int decisions;
+        private int depth;
+        private int method;
+        private boolean inMethod;
+        private int methodDecisions;
+        private int methodBaseDepth;
+        private int methodMaxDepth;
+        private int[] indents = new int[8];
+        private int indentLevels;
+        Collector(CharSequence code, LanguageProfile profile, MethodTable methods) {
+            this.code = code;
+            this.length = code.length();
+            this.methods = methods;
+            this.lexer = new CodeLexer(code, profile);
+            this.indentBlocks = profile.opensBlockWithColon();}
+        CodeMetrics run() {
+            int newlines = 0;
+            int linesAtLastContent = -1;
+            int nonBlank = 0;
+            int lineStart = 0;
+            boolean lineHasContent = false;
+            for (int i = 0; i < length; i++) {
+                char c = code.charAt(i);
+                if (c == '\n') {
+                    newlines++;
+                    lineStart = i + 1;
+                    lineHasContent = false;
+                } else {
+                    linesAtLastContent = newlines;
+                    if (c > ' ' && !lineHasContent) {
+                        lineHasContent = true;
+                        nonBlank++;
+                        if (inMethod && indentBlocks && lexer.inCode() && c != '#') {
+                            indent(i - lineStart);}
+                    }
+                }
+                if (lexer.inCode() && wordStart >= 0 && !isWordChar(c)) {
+                    endWord(i);}
+                if (inMethod ? i >= methods.end(method) : method < methods.size() && i >= methods.start(method)) {
+                    advanceMethods(i, lineStart);}
+                if (lexer.step(i)) {
+                    code(c, i);}
+            }
+            if (lexer.inCode() && wordStart >= 0) {
+                endWord(length);}
+            advanceMethods(length, length);
+            int totalLines = linesAtLastContent < 0 ? (length == 0 ? 1 : 0) : linesAtLastContent + 1;
+            return new CodeMetrics(totalLines, nonBlank, decisions + 1);}
+        private void code(char c, int i) {
+            if (isWordChar(c)) {
+                if (wordStart < 0) {
+                    wordStart = i;}
+                return;}
+            if (c == '{') {
+                depth++;
+                if (inMethod) {
+                    methodMaxDepth = Math.max(methodMaxDepth, depth - methodBaseDepth);}
+            } else if (c == '}') {
+                depth = Math.max(0, depth - 1);}
+        }
+        private void endWord(int end) {
+            int start = wordStart;
+            wordStart = -1;
+            for (String word : DECISION_WORDS) {
+                if (word.length() == end - start && CharSequences.startsWith(code, word, start)) {
+                    decisions++;
+                    if (inMethod) {
+                        methodDecisions++;}
+                    return;}
+            }
+        }
+        private void advanceMethods(int i, int lineStart) {
+            while (true) {
+                if (inMethod) {
+                    if (i < methods.end(method)) {
+                        return;}
+                    int nesting = indentBlocks ? indentLevels - 2 : methodMaxDepth - 1;
+                    methods.measure(method, methodDecisions + 1, Math.max(0, nesting));
+                    inMethod = false;
+                    method++;
+                } else if (method < methods.size() && i >= methods.start(method)) {
+                    inMethod = true;
+                    methodDecisions = 0;
+                    methodBaseDepth = depth;
+                    methodMaxDepth = 0;
+                    indentLevels = 1;
+                    indents[0] = methods.start(method) - lineStart;
+                } else {
+                    return;}
+            }
+        }
+        private void indent(int width) {
+            while (indentLevels > 1 && indents[indentLevels - 1] > width) {
+                indentLevels--;}
+            if (width > indents[indentLevels - 1]) {
+                if (indentLevels == indents.length) {
+                    indents = Arrays.copyOf(indents, indentLevels * 2);}
+                indents[indentLevels++] = width;
+                methodMaxDepth = Math.max(methodMaxDepth, indentLevels);}
+        }
+        private static boolean isWordChar(char c) {
+            return c == '_' || Character.isLetterOrDigit(c) || Character.isSurrogate(c) || Character.getType(c) == Character.NON_SPACING_MARK;}
+    }
+}
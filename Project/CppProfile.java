@@ -0,0 +1,50 @@
+import java.util.regex.Pattern;
+final class CppProfile extends LanguageProfile {
+    private static final GuardedPattern METHOD_NAME = new GuardedPattern("cpp.methodName", "(?s).*?\\w+\\s+(\\w+)\\s*\\([^)]*\\).*", GuardedPattern.UNKNOWN);
+    private static final GuardedPattern RETURN_TYPE = new GuardedPattern("cpp.returnType", "(?s)(\\w+)\\s+\\w+\\s*\\([^)]*\\).*", GuardedPattern.UNKNOWN);
+    private static final Pattern FUNCTION_HEADER = Pattern.compile("\\w+\\s+(\\w+)\\s*\\([^)]*\\)\\s*\\{");
+    private static final Pattern COUT = Pattern.compile("std::cout\\s*<<");
+    CppProfile() {
+        super(".cpp");}
+    @Override
+    void extractStructure(AdvancedCodeProcessor.CodeStructure structure, CharSequence code) {
+        BraceScanner.scan(structure, code, BraceScanner.Dialect.CPP);
+    }
+    @Override
+    String extractMethodSignature(String method) {
+        return stripCStyleBody(method);}
+    @Override
+    String extractMethodName(String method) {
+        return rewrite(METHOD_NAME, method, "$1").trim();}
+    @Override
+    String extractMethodParameters(String method) {
+        return cStyleParameters(method);}
+    @Override
+    String extractMethodReturnType(String method) {
+        return rewrite(RETURN_TYPE, method, "$1").trim();}
+    @Override
+    String extractVariableName(String variable) {
+        return cStyleVariableName(variable);}
+    @Override
+    String extractVariableType(String variable) {
+        return cStyleVariableType(variable);}
+    @Override
+    void addDocumentation(CharSequence code, EditPipeline.Stage out) {
+        insertBeforeMatches(FUNCTION_HEADER, code, out, (doc, matcher) -> doc.append("// ").append(matcher.group(1)).append(" - Auto-generated documentation").append("\n")
+                .append("// Parameters: Auto-detected").append("\n")
+                .append("// Returns: Auto-detected").append("\n"));
+    }
+    @Override
+    String reformatPatterns(String code) {
+        return rewrite(COUT, code, "std::cout << ");}
+    @Override
+    String validateStructure(String code) {
+        if (!code.contains("{")) {
+            AdvancedCodeProcessor.logError("Invalid C++ structure: Missing opening brace");
+            return code;}
+        if (!code.contains("}")) {
+            AdvancedCodeProcessor.logError("Invalid C++ structure: Missing closing brace");
+            return code;}
+        return code;
+    }
+}
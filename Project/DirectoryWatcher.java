@@ -0,0 +1,84 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+final class DirectoryWatcher implements Closeable {
+    interface Listener {
+        void update(Set<Path> touched, boolean rescan, long firstEventNanos) throws IOException;
+    }
+    private static final int MAX_DEBOUNCE_ROUNDS = 20;
+    private final Path excluded;
+    private final long debounceNanos;
+    private final WatchService service;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+    DirectoryWatcher(Path root, Path excluded, long debounceMillis) throws IOException {
+        this.excluded = excluded.toAbsolutePath().normalize();
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+        this.service = FileSystems.getDefault().newWatchService();
+        register(root.toAbsolutePath().normalize(), null);}
+    void run(Listener listener) throws IOException, InterruptedException {
+        Set<Path> touched = new LinkedHashSet<>();
+        while (true) {
+            WatchKey key = service.take();
+            long firstEvent = System.nanoTime();
+            boolean rescan = false;
+            while (key != null) {
+                rescan |= collect(key, touched);
+                key = System.nanoTime() - firstEvent < debounceNanos * MAX_DEBOUNCE_ROUNDS ? service.poll(debounceNanos, TimeUnit.NANOSECONDS) : null;}
+            if (rescan || !touched.isEmpty()) {
+                listener.update(touched, rescan, firstEvent);}
+            touched.clear();
+            if (directories.isEmpty()) {
+                return;}
+        }
+    }
+    private boolean collect(WatchKey key, Set<Path> touched) throws IOException {
+        Path directory = directories.get(key);
+        boolean rescan = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                rescan = true;
+                continue;}
+            Path path = directory.resolve((Path) event.context());
+            if (path.startsWith(excluded)) {
+                continue;}
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                register(path, touched);
+            } else {
+                touched.add(path);}
+        }
+        if (!key.reset()) {
+            directories.remove(key);}
+        return rescan;}
+    private void register(Path start, Set<Path> created) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (dir.startsWith(excluded)) {
+                    return FileVisitResult.SKIP_SUBTREE;}
+                directories.put(dir.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE), dir);
+                return FileVisitResult.CONTINUE;}
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (created != null) {
+                    created.add(file);}
+                return FileVisitResult.CONTINUE;}
+        });
+    }
+    @Override
+    public void close() throws IOException {
+        service.close();}
+}
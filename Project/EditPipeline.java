@@ -0,0 +1,130 @@
+import java.util.Locale;
+import java.util.regex.Pattern;
+final class EditPipeline {
+    private EditPipeline() {
+    }
+    abstract static class Stage {
+        abstract void append(CharSequence text, int start, int end);
+        void append(CharSequence text) {
+            append(text, 0, text.length());}
+        abstract void finish();
+    }
+    static String edit(String code, LanguageProfile profile, RenameMap renames, String replaceFrom, String replaceTo, boolean formatIndent, String transformCase) {
+        CharSequence renamed = renames == null ? code : renames.apply(code, profile);
+        CharSequence replaced = replaceFrom.isEmpty() ? renamed : replaceLiteral(renamed.toString(), replaceFrom, replaceTo);
+        StringBuilder out = new StringBuilder(replaced.length() + replaced.length() / 4);
+        Stage output = new Output(out);
+        Stage head = formatIndent ? new Indenter(output, profile) : output;
+        profile.addDocumentation(replaced, head);
+        head.finish();
+        if (transformCase.equals("uppercase")) {
+            transformIdentifiers(out, true);
+        } else if (transformCase.equals("lowercase")) {
+            transformIdentifiers(out, false);}
+        return out.toString();}
+    static CharSequence replaceLiteral(String code, String target, String replacement) {
+        int index = code.indexOf(target);
+        if (index < 0) {
+            return code;}
+        String literal = replacement.indexOf('$') < 0 && replacement.indexOf('\\') < 0 ? replacement : Pattern.compile(Pattern.quote(target)).matcher(target).replaceFirst(replacement);
+        StringBuilder replaced = new StringBuilder(code.length() + Math.max(0, literal.length() - target.length()) * 4);
+        int last = 0;
+        while (index >= 0) {
+            replaced.append(code, last, index).append(literal);
+            last = index + target.length();
+            index = code.indexOf(target, last);}
+        return replaced.append(code, last, code.length());}
+    static void transformIdentifiers(StringBuilder text, boolean toUpper) {
+        String language = Locale.getDefault().getLanguage();
+        boolean asciiCase = !language.equals("tr") && !language.equals("az");
+        int i = 0;
+        while (i < text.length()) {
+            if (!isAsciiWord(text.charAt(i))) {
+                i++;
+                continue;}
+            int start = i;
+            while (i < text.length() && isAsciiWord(text.charAt(i))) {
+                i++;}
+            if (wordBefore(text, start) || wordAt(text, i)) {
+                continue;}
+            if (asciiCase) {
+                for (int j = start; j < i; j++) {
+                    char c = text.charAt(j);
+                    if (toUpper ? c >= 'a' && c <= 'z' : c >= 'A' && c <= 'Z') {
+                        text.setCharAt(j, (char) (c ^ 0x20));}
+                }
+            } else {
+                String identifier = text.substring(start, i);
+                String converted = toUpper ? identifier.toUpperCase() : identifier.toLowerCase();
+                text.replace(start, i, converted);
+                i = start + converted.length();}
+        }
+    }
+    private static boolean isAsciiWord(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_';}
+    static boolean wordBefore(CharSequence text, int index) {
+        return index > 0 && (IdentifierCounts.isWord(Character.codePointBefore(text, index)) || IdentifierCounts.markContinuesWord(text, index - 1));}
+    static boolean wordAt(CharSequence text, int index) {
+        return index < text.length() && (IdentifierCounts.isWord(Character.codePointAt(text, index)) || IdentifierCounts.markContinuesWord(text, index));}
+    private static final class Output extends Stage {
+        private final StringBuilder out;
+        Output(StringBuilder out) {
+            this.out = out;}
+        @Override
+        void append(CharSequence text, int start, int end) {
+            out.append(text, start, end);}
+        @Override
+        void finish() {
+        }
+    }
+    private static final class Indenter extends Stage {
+        private final Stage next;
+        private final String indentUnit;
+        private final boolean colonBlocks;
+        private final StringBuilder pending = new StringBuilder();
+        private int indentLevel;
+        private boolean first = true;
+        Indenter(Stage next, LanguageProfile profile) {
+            this.next = next;
+            this.indentUnit = profile.indentUnit();
+            this.colonBlocks = profile.opensBlockWithColon();}
+        @Override
+        void append(CharSequence text, int start, int end) {
+            int lineStart = start;
+            for (int i = start; i < end; i++) {
+                if (text.charAt(i) != '\n') {
+                    continue;}
+                if (pending.length() == 0) {
+                    line(text, lineStart, i);
+                } else {
+                    pending.append(text, lineStart, i);
+                    line(pending, 0, pending.length());
+                    pending.setLength(0);}
+                lineStart = i + 1;}
+            pending.append(text, lineStart, end);}
+        @Override
+        void finish() {
+            line(pending, 0, pending.length());
+            pending.setLength(0);
+            next.finish();}
+        private void line(CharSequence text, int start, int end) {
+            while (start < end && text.charAt(start) <= ' ') {
+                start++;}
+            while (end > start && text.charAt(end - 1) <= ' ') {
+                end--;}
+            if (start == end) {
+                return;}
+            char last = text.charAt(end - 1);
+            if (last == '}' || last == ':') {
+                indentLevel = Math.max(0, indentLevel - 1);}
+            if (!first) {
+                next.append("\n");}
+            first = false;
+            for (int level = 0; level < indentLevel; level++) {
+                next.append(indentUnit);}
+            next.append(text, start, end);
+            if (last == '{' || (colonBlocks && last == ':')) {
+                indentLevel++;}
+        }
+    }
+}
@@ -0,0 +1,112 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+final class ErrorLog {
+    private static final int QUEUE_CAPACITY = Math.max(1, Integer.getInteger("processor.errorLogQueue", 8192));
+    private static final int BATCH_SIZE = Math.max(1, Integer.getInteger("processor.errorLogBatch", 256));
+    private static final long FLUSH_MILLIS = Math.max(1, Long.getLong("processor.errorLogFlushMillis", 200));
+    private static final Object STOP = new Object();
+    private static final ErrorLog INSTANCE = new ErrorLog(Paths.get(AdvancedCodeProcessor.OUTPUT_DIR, "error_log.txt"));
+    private final Path target;
+    private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writer;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private ErrorLog(Path target) {
+        this.target = target;
+        this.writer = new Thread(this::run, "processor-error-log");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "processor-error-log-shutdown"));}
+    static void log(String message) {
+        INSTANCE.enqueue(new Date() + ": " + message + "\n");}
+    static void flush() {
+        CountDownLatch written = new CountDownLatch(1);
+        if (INSTANCE.enqueue(written)) {
+            await(written);}
+    }
+    private boolean enqueue(Object entry) {
+        if (stopped.getCount() == 0) {
+            return false;}
+        try {
+            queue.put(entry);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;}
+    }
+    private void close() {
+        if (enqueue(STOP)) {
+            await(stopped);}
+    }
+    private void run() {
+        List<Object> batch = new ArrayList<>();
+        StringBuilder pending = new StringBuilder();
+        int entries = 0;
+        long deadline = 0;
+        try {
+            while (true) {
+                Object entry = entries == 0 ? queue.take() : queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (entry != null) {
+                    batch.add(entry);
+                    queue.drainTo(batch, BATCH_SIZE);}
+                boolean flushRequested = false;
+                boolean stop = false;
+                for (Object item : batch) {
+                    if (item instanceof String) {
+                        if (entries++ == 0) {
+                            deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FLUSH_MILLIS);}
+                        pending.append((String) item);
+                    } else {
+                        flushRequested = true;
+                        stop |= item == STOP;}
+                }
+                if (entries > 0 && (flushRequested || entries >= BATCH_SIZE || System.nanoTime() >= deadline)) {
+                    write(pending);
+                    pending.setLength(0);
+                    entries = 0;}
+                for (Object item : batch) {
+                    if (item instanceof CountDownLatch) {
+                        ((CountDownLatch) item).countDown();}
+                }
+                batch.clear();
+                if (stop) {
+                    return;}
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stopped.countDown();
+            Object item;
+            while ((item = queue.poll()) != null) {
+                if (item instanceof String) {
+                    pending.append((String) item);
+                    entries++;
+                } else if (item instanceof CountDownLatch) {
+                    ((CountDownLatch) item).countDown();}
+            }
+            if (entries > 0) {
+                write(pending);}
+        }
+    }
+    private void write(CharSequence entries) {
+        try {
+            Files.write(target, entries.toString().getBytes(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.out.println("Failed to log error: " + e.getMessage());}
+    }
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();}
+    }
+}
@@ -0,0 +1,102 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+final class FileRecord {
+    static final class MethodRow {
+        final String signature;
+        final int lines;
+        final String parameters;
+        final String returnType;
+        final int complexity;
+        final int nesting;
+        MethodRow(String signature, int lines, String parameters, String returnType, int complexity, int nesting) {
+            this.signature = signature;
+            this.lines = lines;
+            this.parameters = parameters;
+            this.returnType = returnType;
+            this.complexity = complexity;
+            this.nesting = nesting;}
+    }
+    final String path;
+    final String extension;
+    final int totalLines;
+    final int nonBlankLines;
+    final int complexity;
+    final int imports;
+    final int classes;
+    final int variables;
+    final List<MethodRow> methods;
+    final Map<String, Integer> variableUsage;
+    FileRecord(String path, String extension, int totalLines, int nonBlankLines, int complexity, int imports, int classes, int variables, List<MethodRow> methods, Map<String, Integer> variableUsage) {
+        this.path = path;
+        this.extension = extension;
+        this.totalLines = totalLines;
+        this.nonBlankLines = nonBlankLines;
+        this.complexity = complexity;
+        this.imports = imports;
+        this.classes = classes;
+        this.variables = variables;
+        this.methods = Collections.unmodifiableList(new ArrayList<>(methods));
+        this.variableUsage = Collections.unmodifiableMap(new LinkedHashMap<>(variableUsage));}
+    FileRecord withPath(String newPath) {
+        return newPath.equals(path) ? this : new FileRecord(newPath, extension, totalLines, nonBlankLines, complexity, imports, classes, variables, methods, variableUsage);}
+    void writeTo(DataOutput out) throws IOException {
+        writeString(out, path);
+        writeString(out, extension);
+        out.writeInt(totalLines);
+        out.writeInt(nonBlankLines);
+        out.writeInt(complexity);
+        out.writeInt(imports);
+        out.writeInt(classes);
+        out.writeInt(variables);
+        out.writeInt(methods.size());
+        for (MethodRow method : methods) {
+            writeString(out, method.signature);
+            out.writeInt(method.lines);
+            writeString(out, method.parameters);
+            writeString(out, method.returnType);
+            out.writeInt(method.complexity);
+            out.writeInt(method.nesting);}
+        out.writeInt(variableUsage.size());
+        for (Map.Entry<String, Integer> entry : variableUsage.entrySet()) {
+            writeString(out, entry.getKey());
+            out.writeInt(entry.getValue());}
+    }
+    static FileRecord readFrom(DataInput in) throws IOException {
+        String path = readString(in);
+        String extension = readString(in);
+        int totalLines = in.readInt();
+        int nonBlankLines = in.readInt();
+        int complexity = in.readInt();
+        int imports = in.readInt();
+        int classes = in.readInt();
+        int variables = in.readInt();
+        int methodCount = in.readInt();
+        List<MethodRow> methods = new ArrayList<>(methodCount);
+        for (int i = 0; i < methodCount; i++) {
+            methods.add(new MethodRow(readString(in), in.readInt(), readString(in), readString(in), in.readInt(), in.readInt()));}
+        int usageCount = in.readInt();
+        Map<String, Integer> variableUsage = new LinkedHashMap<>();
+        for (int i = 0; i < usageCount; i++) {
+            variableUsage.put(readString(in), in.readInt());}
+        return new FileRecord(path, extension, totalLines, nonBlankLines, complexity, imports, classes, variables, methods, variableUsage);}
+    static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);}
+    }
+    static String readString(DataInput in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;}
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);}
+}
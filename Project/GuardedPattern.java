@@ -0,0 +1,140 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+final class GuardedPattern {
+    private static final long BUDGET_STEPS = Long.getLong("processor.regexBudgetSteps", 200_000_000L);
+    private static final long STEPS_PER_CHAR = Long.getLong("processor.regexStepsPerChar", 200);
+    private static final int GUARD_MIN_LENGTH = 256;
+    private static final List<GuardedPattern> PATTERNS = new CopyOnWriteArrayList<>();
+    private static final ThreadLocal<Tally> TALLY = new ThreadLocal<>();
+    private static final Overrun OVERRUN = new Overrun();
+    static final UnaryOperator<String> UNKNOWN = input -> "unknown";
+    interface Spans {
+        void add(int start, int end);
+    }
+    static final class Tally {
+        private volatile boolean overran;
+        boolean overran() {
+            return overran;}
+    }
+    private final String name;
+    private final Pattern pattern;
+    private final UnaryOperator<String> fallback;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder overruns = new LongAdder();
+    GuardedPattern(String name, String regex, UnaryOperator<String> fallback) {
+        this(name, regex, 0, fallback);}
+    GuardedPattern(String name, String regex, int flags) {
+        this(name, regex, flags, UNKNOWN);}
+    GuardedPattern(String name, String regex, int flags, UnaryOperator<String> fallback) {
+        this.name = name;
+        this.pattern = Pattern.compile(regex, flags);
+        this.fallback = fallback;
+        PATTERNS.add(this);}
+    String rewrite(String input, String replacement) {
+        long started = System.nanoTime();
+        try {
+            return pattern.matcher(guard(input)).replaceAll(replacement);
+        } catch (Overrun e) {
+            overrun(input.length(), "used the fallback scan");
+            return fallback.apply(input);
+        } finally {
+            record(started);}
+    }
+    void collect(CharSequence code, Spans target) {
+        long started = System.nanoTime();
+        Matcher matcher = pattern.matcher(guard(code));
+        try {
+            while (matcher.find()) {
+                target.add(matcher.start(), matcher.end());}
+        } catch (Overrun e) {
+            overrun(code.length(), "skipped the remaining matches");
+        } finally {
+            record(started);}
+    }
+    static Tally track(Tally tally) {
+        Tally previous = TALLY.get();
+        TALLY.set(tally);
+        return previous;}
+    static Tally current() {
+        return TALLY.get();}
+    private static CharSequence guard(CharSequence text) {
+        long budget = budget(text.length());
+        return budget > 0 && text.length() >= GUARD_MIN_LENGTH ? new Budgeted(text, budget) : text;}
+    private static long budget(int length) {
+        return BUDGET_STEPS + STEPS_PER_CHAR * length;}
+    private void record(long started) {
+        long elapsed = System.nanoTime() - started;
+        calls.increment();
+        nanos.add(elapsed);
+        maxNanos.accumulate(elapsed);}
+    private void overrun(int length, String action) {
+        overruns.increment();
+        Tally tally = TALLY.get();
+        if (tally != null) {
+            tally.overran = true;}
+        AdvancedCodeProcessor.logError("Regex " + name + " exceeded its budget of " + budget(length) + " steps on " + length + " chars and " + action);}
+    static void resetStats() {
+        for (GuardedPattern guarded : PATTERNS) {
+            guarded.calls.reset();
+            guarded.nanos.reset();
+            guarded.maxNanos.reset();
+            guarded.overruns.reset();}
+    }
+    static long overrunCount() {
+        long total = 0;
+        for (GuardedPattern guarded : PATTERNS) {
+            total += guarded.overruns.sum();}
+        return total;}
+    static String summary() {
+        List<GuardedPattern> used = new ArrayList<>();
+        for (GuardedPattern guarded : PATTERNS) {
+            if (guarded.calls.sum() > 0) {
+                used.add(guarded);}
+        }
+        used.sort(Comparator.comparingLong((GuardedPattern guarded) -> guarded.nanos.sum()).reversed());
+        StringBuilder summary = new StringBuilder();
+        summary.append("Regex Cost (budget ").append(BUDGET_STEPS > 0 || STEPS_PER_CHAR > 0 ? BUDGET_STEPS + " steps + " + STEPS_PER_CHAR + " per char" : "off").append("):\n");
+        summary.append(String.format(Locale.ROOT, "  %-26s %9s %11s %9s %9s%n", "Pattern", "Calls", "Total ms", "Max ms", "Overruns"));
+        for (GuardedPattern guarded : used) {
+            summary.append(String.format(Locale.ROOT, "  %-26s %9d %11.1f %9.2f %9d%n", guarded.name, guarded.calls.sum(), guarded.nanos.sum() / 1e6,
+                    guarded.maxNanos.get() / 1e6, guarded.overruns.sum()));}
+        summary.append("----------------------------------------\n");
+        return summary.toString();}
+    private static final class Budgeted implements CharSequence {
+        private final CharSequence text;
+        private final long budget;
+        private long steps;
+        Budgeted(CharSequence text, long budget) {
+            this.text = text;
+            this.budget = budget;}
+        @Override
+        public char charAt(int index) {
+            if (++steps > budget) {
+                throw OVERRUN;}
+            return text.charAt(index);}
+        @Override
+        public int length() {
+            return text.length();}
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return text.subSequence(start, end);}
+        @Override
+        public String toString() {
+            return text.toString();}
+    }
+    private static final class Overrun extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        Overrun() {
+            super(null, null, false, false);}
+    }
+}
@@ -0,0 +1,119 @@
+import java.util.Arrays;
+final class IdentifierCounts {
+    private static final int EMPTY = -1;
+    private final CharSequence text;
+    private int[] starts;
+    private int[] lengths;
+    private int[] hashes;
+    private int[] counts;
+    private int size;
+    private IdentifierCounts(CharSequence text, int capacity) {
+        this.text = text;
+        allocate(capacity);}
+    static IdentifierCounts of(CharSequence text) {
+        IdentifierCounts table = new IdentifierCounts(text, 256);
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            int ch = Character.codePointAt(text, i);
+            if (!isWord(ch)) {
+                i += Character.charCount(ch);
+                continue;}
+            int start = i;
+            int hash = 0;
+            while (i < length && isWord(ch = Character.codePointAt(text, i))) {
+                int width = Character.charCount(ch);
+                for (int k = 0; k < width; k++) {
+                    hash = 31 * hash + text.charAt(i + k);}
+                i += width;}
+            if (!markContinuesWord(text, start - 1) && !markContinuesWord(text, i)) {
+                table.increment(start, i - start, hash);}
+        }
+        return table;}
+    static boolean isIdentifier(String term) {
+        if (term.isEmpty()) {
+            return false;}
+        for (int i = 0; i < term.length(); ) {
+            int ch = term.codePointAt(i);
+            if (!isWord(ch)) {
+                return false;}
+            i += Character.charCount(ch);}
+        return true;}
+    int count(String identifier) {
+        int hash = identifier.hashCode();
+        int mask = starts.length - 1;
+        for (int slot = mix(hash) & mask; starts[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && lengths[slot] == identifier.length() && regionMatches(starts[slot], identifier)) {
+                return counts[slot];}
+        }
+        return 0;}
+    int distinct() {
+        return size;}
+    private void increment(int start, int length, int hash) {
+        int mask = starts.length - 1;
+        int slot = mix(hash) & mask;
+        while (starts[slot] != EMPTY) {
+            if (hashes[slot] == hash && lengths[slot] == length && regionMatches(starts[slot], start, length)) {
+                counts[slot]++;
+                return;}
+            slot = (slot + 1) & mask;}
+        starts[slot] = start;
+        lengths[slot] = length;
+        hashes[slot] = hash;
+        counts[slot] = 1;
+        if (++size * 2 > starts.length) {
+            grow();}
+    }
+    private void grow() {
+        int[] oldStarts = starts;
+        int[] oldLengths = lengths;
+        int[] oldHashes = hashes;
+        int[] oldCounts = counts;
+        allocate(oldStarts.length * 2);
+        int mask = starts.length - 1;
+        for (int i = 0; i < oldStarts.length; i++) {
+            if (oldStarts[i] == EMPTY) {
+                continue;}
+            int slot = mix(oldHashes[i]) & mask;
+            while (starts[slot] != EMPTY) {
+                slot = (slot + 1) & mask;}
+            starts[slot] = oldStarts[i];
+            lengths[slot] = oldLengths[i];
+            hashes[slot] = oldHashes[i];
+            counts[slot] = oldCounts[i];}
+    }
+    private void allocate(int capacity) {
+        starts = new int[capacity];
+        lengths = new int[capacity];
+        hashes = new int[capacity];
+        counts = new int[capacity];
+        Arrays.fill(starts, EMPTY);}
+    private boolean regionMatches(int start, String identifier) {
+        for (int k = 0; k < identifier.length(); k++) {
+            if (text.charAt(start + k) != identifier.charAt(k)) {
+                return false;}
+        }
+        return true;}
+    private boolean regionMatches(int first, int second, int length) {
+        for (int k = 0; k < length; k++) {
+            if (text.charAt(first + k) != text.charAt(second + k)) {
+                return false;}
+        }
+        return true;}
+    static boolean isWord(int ch) {
+        return ch == '_' || Character.isLetterOrDigit(ch);}
+    static boolean markContinuesWord(CharSequence text, int index) {
+        if (index < 0 || index >= text.length() || Character.getType(Character.codePointAt(text, index)) != Character.NON_SPACING_MARK) {
+            return false;}
+        for (int x = index; x >= 0; x--) {
+            int ch = Character.codePointAt(text, x);
+            if (Character.isLetterOrDigit(ch)) {
+                return true;}
+            if (Character.getType(ch) != Character.NON_SPACING_MARK) {
+                return false;}
+        }
+        return false;}
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);}
+}
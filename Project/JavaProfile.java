@@ -0,0 +1,56 @@
+import java.util.regex.Pattern;
+final class JavaProfile extends LanguageProfile {
+    private static final GuardedPattern METHOD_NAME = new GuardedPattern("java.methodName", "(?s).*?\\w+\\s+(\\w+)\\s*\\([^)]*\\).*", GuardedPattern.UNKNOWN);
+    private static final GuardedPattern RETURN_TYPE = new GuardedPattern("java.returnType", "(?s)(public|private|protected)?\\s*(static)?\\s*(\\w+)\\s+\\w+\\s*\\([^)]*\\).*", GuardedPattern.UNKNOWN);
+    private static final Pattern METHOD_HEADER = Pattern.compile("(public|private|protected)?\\s*(static)?\\s*\\w+\\s+(\\w+)\\s*\\([^)]*\\)\\s*\\{");
+    private static final Pattern PRINTLN = Pattern.compile("System\\.out\\.println\\(");
+    JavaProfile() {
+        super(".java");}
+    @Override
+    void extractStructure(AdvancedCodeProcessor.CodeStructure structure, CharSequence code) {
+        BraceScanner.scan(structure, code, BraceScanner.Dialect.JAVA);
+    }
+    @Override
+    String extractMethodSignature(String method) {
+        return stripCStyleBody(method);}
+    @Override
+    String extractMethodName(String method) {
+        return rewrite(METHOD_NAME, method, "$1").trim();}
+    @Override
+    String extractMethodParameters(String method) {
+        return cStyleParameters(method);}
+    @Override
+    String extractMethodReturnType(String method) {
+        return rewrite(RETURN_TYPE, method, "$3").trim();}
+    @Override
+    String extractVariableName(String variable) {
+        return cStyleVariableName(variable);}
+    @Override
+    String extractVariableType(String variable) {
+        return cStyleVariableType(variable);}
+    @Override
+    void addDocumentation(CharSequence code, EditPipeline.Stage out) {
+        insertBeforeMatches(METHOD_HEADER, code, out, (doc, matcher) -> doc.append("/**").append("\n")
+                .append(" * Method: ").append(matcher.group(3)).append("\n")
+                .append(" * Description: Auto-generated method documentation").append("\n")
+                .append(" * Parameters: Auto-detected").append("\n")
+                .append(" * Returns: Auto-detected").append("\n")
+                .append(" */**").append("\n"));
+    }
+    @Override
+    String reformatPatterns(String code) {
+        return rewrite(PRINTLN, code, "System.out.print(");}
+    @Override
+    boolean tripleQuotes() {
+        return true;}
+    @Override
+    String validateStructure(String code) {
+        if (!code.contains("{")) {
+            AdvancedCodeProcessor.logError("Invalid Java structure: Missing opening brace");
+            return code;}
+        if (!code.contains("}")) {
+            AdvancedCodeProcessor.logError("Invalid Java structure: Missing closing brace");
+            return code;}
+        return code;
+    }
+}
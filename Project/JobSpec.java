@@ -0,0 +1,81 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Properties;
+final class JobSpec {
+    static final String[] KEYS = {"dir", "search", "filter", "filterValue", "concatenate", "renameMap", "renameCodeOnly", "replace", "replaceWith", "formatIndent", "transform"};
+    final String dirPath;
+    final String searchTerm;
+    final String filterType;
+    final String filterValue;
+    final boolean concatenate;
+    final String renameMap;
+    final boolean renameCodeOnly;
+    final String replaceFrom;
+    final String replaceTo;
+    final boolean formatIndent;
+    final String transformCase;
+    JobSpec(String dirPath, String searchTerm, String filterType, String filterValue, boolean concatenate, String renameMap, boolean renameCodeOnly, String replaceFrom, String replaceTo, boolean formatIndent, String transformCase) {
+        this.dirPath = dirPath;
+        this.searchTerm = searchTerm;
+        this.filterType = filterType;
+        this.filterValue = filterValue;
+        this.concatenate = concatenate;
+        this.renameMap = renameMap;
+        this.renameCodeOnly = renameCodeOnly;
+        this.replaceFrom = replaceFrom;
+        this.replaceTo = replaceFrom.isEmpty() ? "" : replaceTo;
+        this.formatIndent = formatIndent;
+        this.transformCase = transformCase;}
+    static JobSpec fromArgs(String[] args) throws IOException {
+        Properties properties = new Properties();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);}
+            int equals = arg.indexOf('=');
+            String key = equals < 0 ? arg.substring(2) : arg.substring(2, equals);
+            String value;
+            if (equals >= 0) {
+                value = arg.substring(equals + 1);
+            } else if (i + 1 < args.length) {
+                value = args[++i];
+            } else {
+                throw new IllegalArgumentException("Missing value for --" + key);}
+            if (key.equals("job")) {
+                try (Reader reader = Files.newBufferedReader(Paths.get(value))) {
+                    properties.load(reader);}
+            } else {
+                properties.setProperty(key, value);}
+        }
+        return fromProperties(properties);}
+    static JobSpec fromProperties(Properties properties) {
+        for (String key : properties.stringPropertyNames()) {
+            if (!isKnownKey(key)) {
+                throw new IllegalArgumentException("Unknown job option: " + key);}
+        }
+        String dirPath = value(properties, "dir");
+        if (dirPath.isEmpty()) {
+            throw new IllegalArgumentException("Job spec is missing 'dir'");}
+        return new JobSpec(dirPath, value(properties, "search"), value(properties, "filter").toLowerCase(), value(properties, "filterValue"),
+                flag(properties, "concatenate"), value(properties, "renameMap"), flag(properties, "renameCodeOnly"), value(properties, "replace"), value(properties, "replaceWith"),
+                flag(properties, "formatIndent"), value(properties, "transform").toLowerCase());}
+    RenameMap renames() throws IOException {
+        return renameMap.isEmpty() ? null : RenameMap.load(Paths.get(renameMap), renameCodeOnly);}
+    private static boolean isKnownKey(String key) {
+        for (String known : KEYS) {
+            if (known.equals(key)) {
+                return true;}
+        }
+        return false;}
+    private static String value(Properties properties, String key) {
+        return properties.getProperty(key, "").trim();}
+    private static boolean flag(Properties properties, String key) {
+        String value = value(properties, key);
+        return value.equalsIgnoreCase("yes") || value.equalsIgnoreCase("true");}
+    @Override
+    public String toString() {
+        return "dir=" + dirPath + ", search=" + searchTerm + ", filter=" + filterType + ", filterValue=" + filterValue + ", concatenate=" + concatenate
+                + ", renameMap=" + renameMap + ", renameCodeOnly=" + renameCodeOnly + ", replace=" + replaceFrom + ", replaceWith=" + replaceTo + ", formatIndent=" + formatIndent + ", transform=" + transformCase;}
+}
@@ -0,0 +1,52 @@
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+final class JsProfile extends LanguageProfile {
+    private static final GuardedPattern METHOD_NAME = new GuardedPattern("js.methodName", "(?s).*?(function\\s+|)(\\w+)\\s*\\([^)]*\\).*", GuardedPattern.UNKNOWN);
+    private static final GuardedPattern METHOD_PARAMETERS = new GuardedPattern("js.methodParameters", "(?s)(function\\s+\\w+\\s*|\\w+\\s*)\\(([^)]*)\\).*", GuardedPattern.UNKNOWN);
+    private static final GuardedPattern VARIABLE_NAME = new GuardedPattern("js.variableName", "(?s)(let|const|var)\\s+(\\w+).*", GuardedPattern.UNKNOWN);
+    private static final GuardedPattern VARIABLE_TYPE = new GuardedPattern("js.variableType", "(?s)(let|const|var)\\s+\\w+.*", GuardedPattern.UNKNOWN);
+    private static final Pattern FUNCTION_HEADER = Pattern.compile("(function\\s+(\\w+)\\s*\\([^)]*\\)|(\\w+)\\s*\\([^)]*\\)\\s*=>\\s*\\{)");
+    private static final Pattern CONSOLE_LOG = Pattern.compile("console\\.log\\(");
+    JsProfile() {
+        super(".js");}
+    @Override
+    void extractStructure(AdvancedCodeProcessor.CodeStructure structure, CharSequence code) {
+        BraceScanner.scan(structure, code, BraceScanner.Dialect.JS);
+    }
+    @Override
+    String extractMethodSignature(String method) {
+        return stripCStyleBody(method);}
+    @Override
+    String extractMethodName(String method) {
+        return rewrite(METHOD_NAME, method, "$2").trim();}
+    @Override
+    String extractMethodParameters(String method) {
+        return rewrite(METHOD_PARAMETERS, method, "$2").trim();}
+    @Override
+    String extractVariableName(String variable) {
+        return rewrite(VARIABLE_NAME, variable, "$2").trim();}
+    @Override
+    String extractVariableType(String variable) {
+        return rewrite(VARIABLE_TYPE, variable, "$1").trim();}
+    @Override
+    void addDocumentation(CharSequence code, EditPipeline.Stage out) {
+        insertBeforeMatches(FUNCTION_HEADER, code, out, (doc, matcher) -> doc.append("// ").append(matcher.group(2) != null ? matcher.group(2) : matcher.group(3)).append(" - Auto-generated documentation").append("\n")
+                .append("// Parameters: Auto-detected").append("\n")
+                .append("// Returns: Auto-detected").append("\n"));
+    }
+    @Override
+    String reformatPatterns(String code) {
+        return rewrite(CONSOLE_LOG, code, "console.log(");}
+    @Override
+    String quotes() {
+        return "\"'`";}
+    @Override
+    String validateStructure(String code) {
+        Matcher matcher = FUNCTION_HEADER.matcher(code);
+        while (matcher.find()) {
+            String funcLine = matcher.group();
+            if (!funcLine.contains("(") || !funcLine.contains(")")) {
+                AdvancedCodeProcessor.logError("Invalid JavaScript structure: Function definition missing parentheses");}
+        }
+        return code;}
+}
@@ -0,0 +1,76 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+final class JsonLinesReportSink extends RotatingReportSink {
+    JsonLinesReportSink(Path directory, String baseName, long maxBytes, boolean append) throws IOException {
+        super(directory, baseName, ".jsonl", maxBytes, append);}
+    @Override
+    byte[] header() {
+        return new byte[0];}
+    @Override
+    byte[] encode(FileRecord record) {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"path\":");
+        string(json, record.path);
+        json.append(",\"extension\":");
+        string(json, record.extension);
+        json.append(",\"totalLines\":").append(record.totalLines);
+        json.append(",\"nonBlankLines\":").append(record.nonBlankLines);
+        json.append(",\"complexity\":").append(record.complexity);
+        json.append(",\"imports\":").append(record.imports);
+        json.append(",\"classes\":").append(record.classes);
+        json.append(",\"variables\":").append(record.variables);
+        json.append(",\"methods\":[");
+        for (int i = 0; i < record.methods.size(); i++) {
+            FileRecord.MethodRow method = record.methods.get(i);
+            json.append(i == 0 ? "{" : ",{").append("\"signature\":");
+            string(json, method.signature);
+            json.append(",\"lines\":").append(method.lines).append(",\"parameters\":");
+            string(json, method.parameters);
+            json.append(",\"returnType\":");
+            string(json, method.returnType);
+            json.append(",\"complexity\":").append(method.complexity).append(",\"nesting\":").append(method.nesting);
+            json.append('}');}
+        json.append("],\"variableUsage\":{");
+        boolean first = true;
+        for (Map.Entry<String, Integer> entry : record.variableUsage.entrySet()) {
+            if (!first) {
+                json.append(',');}
+            first = false;
+            string(json, entry.getKey());
+            json.append(':').append(entry.getValue());}
+        json.append("}}\n");
+        return json.toString().getBytes(StandardCharsets.UTF_8);}
+    private static void string(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;}
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);}
+            }
+        }
+        json.append('"');}
+}
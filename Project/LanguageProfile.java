@@ -0,0 +1,91 @@
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+abstract class LanguageProfile {
+    private static final GuardedPattern C_STYLE_BODY = new GuardedPattern("c.body", "(?s)\\{.*\\}", LanguageProfile::withoutOuterBraces);
+    private static final GuardedPattern C_STYLE_BODY_TAIL = new GuardedPattern("c.bodyTail", "(?s)\\{.*", method -> before(method, '{'));
+    private static final GuardedPattern C_STYLE_PARAMETER_LIST = new GuardedPattern("c.parameterList", ".*?\\((.*?)\\).*", GuardedPattern.UNKNOWN);
+    private static final GuardedPattern C_STYLE_VARIABLE_NAME = new GuardedPattern("c.variableName", "(?s).*?\\w+[\\s*&]+(\\w+)\\s*(=.*)?(;.*)?\\z", GuardedPattern.UNKNOWN);
+    private static final GuardedPattern C_STYLE_VARIABLE_TYPE = new GuardedPattern("c.variableType", "(?s).*?(\\w+)[\\s*&]+\\w+\\s*(=.*)?(;.*)?\\z", GuardedPattern.UNKNOWN);
+    private final String extension;
+    LanguageProfile(String extension) {
+        this.extension = extension;}
+    String extension() {
+        return extension;}
+    void extractStructure(AdvancedCodeProcessor.CodeStructure structure, CharSequence code) {
+    }
+    String extractMethodSignature(String method) {
+        return method;}
+    String extractMethodName(String method) {
+        return "unknown";}
+    String extractMethodParameters(String method) {
+        return "unknown";}
+    String extractMethodReturnType(String method) {
+        return "unknown";}
+    String extractVariableName(String variable) {
+        return "unknown";}
+    String extractVariableType(String variable) {
+        return "unknown";}
+    void addDocumentation(CharSequence code, EditPipeline.Stage out) {
+        out.append(code);}
+    String reformatPatterns(String code) {
+        return code;}
+    String validateStructure(String code) {
+        return code;}
+    String indentUnit() {
+        return "\t";}
+    boolean opensBlockWithColon() {
+        return false;}
+    String lineComment() {
+        return "//";}
+    boolean blockComments() {
+        return true;}
+    String quotes() {
+        return "\"'";}
+    boolean tripleQuotes() {
+        return false;}
+    int nextBlockBoundary(CharSequence code, int from) {
+        int index = CharSequences.indexOf(code, "\n}", from);
+        if (index < 0) {
+            return -1;}
+        int lineEnd = CharSequences.indexOf(code, '\n', index + 1);
+        return lineEnd < 0 ? code.length() : lineEnd + 1;}
+    static void collect(GuardedPattern pattern, CharSequence code, SpanList target) {
+        pattern.collect(code, target::add);}
+    static void collect(GuardedPattern pattern, CharSequence code, MethodTable target) {
+        pattern.collect(code, target::add);}
+    static String rewrite(Pattern pattern, String input, String replacement) {
+        return pattern.matcher(input).replaceAll(replacement);}
+    static String rewrite(GuardedPattern pattern, String input, String replacement) {
+        return pattern.rewrite(input, replacement);}
+    static String before(String text, char delimiter) {
+        int index = text.indexOf(delimiter);
+        return index < 0 ? text : text.substring(0, index);}
+    private static String withoutOuterBraces(String method) {
+        int open = method.indexOf('{');
+        int close = method.lastIndexOf('}');
+        return open >= 0 && close > open ? method.substring(0, open) + method.substring(close + 1) : method;}
+    static String stripCStyleBody(String method) {
+        return rewrite(C_STYLE_BODY, method, "").trim();}
+    static String cStyleParameters(String method) {
+        String paramPart = rewrite(C_STYLE_BODY_TAIL, method, "");
+        return rewrite(C_STYLE_PARAMETER_LIST, paramPart, "$1").trim();}
+    static String cStyleVariableName(String variable) {
+        return rewrite(C_STYLE_VARIABLE_NAME, variable, "$1").trim();}
+    static String cStyleVariableType(String variable) {
+        return rewrite(C_STYLE_VARIABLE_TYPE, variable, "$1").trim();}
+    static void insertBeforeMatches(Pattern pattern, CharSequence code, EditPipeline.Stage out, DocTemplate template) {
+        Matcher matcher = pattern.matcher(code);
+        StringBuilder doc = new StringBuilder();
+        int lastEnd = 0;
+        while (matcher.find()) {
+            out.append(code, lastEnd, matcher.start());
+            doc.setLength(0);
+            template.append(doc, matcher);
+            out.append(doc);
+            out.append(code, matcher.start(), matcher.end());
+            lastEnd = matcher.end();}
+        out.append(code, lastEnd, code.length());}
+    interface DocTemplate {
+        void append(StringBuilder out, Matcher matcher);
+    }
+}
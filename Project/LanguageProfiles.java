@@ -0,0 +1,29 @@
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+final class LanguageProfiles {
+    private static final Map<String, LanguageProfile> PROFILES = new ConcurrentHashMap<>();
+    private static final LanguageProfile PLAIN = new LanguageProfile("") {};
+    static {
+        register(new JavaProfile());
+        register(new PythonProfile());
+        register(new CppProfile());
+        register(new JsProfile());
+    }
+    private LanguageProfiles() {
+    }
+    static void register(LanguageProfile profile) {
+        PROFILES.put(profile.extension().toLowerCase(), profile);}
+    static LanguageProfile forExtension(String extension) {
+        return PROFILES.getOrDefault(extension.toLowerCase(), PLAIN);}
+    static boolean isSupported(String fileName) {
+        String lower = fileName.toLowerCase();
+        for (String extension : PROFILES.keySet()) {
+            if (lower.endsWith(extension)) {
+                return true;}
+        }
+        return false;}
+    static Collection<LanguageProfile> all() {
+        return Collections.unmodifiableCollection(PROFILES.values());}
+}
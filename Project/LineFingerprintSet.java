@@ -0,0 +1,90 @@
+import java.nio.ByteBuffer;
+final class LineFingerprintSet {
+    private static final boolean OFF_HEAP = Boolean.getBoolean("processor.dedupOffHeap");
+    private static final int SLOT_BYTES = 16;
+    private static final int INITIAL_CAPACITY = 1024;
+    private final CharSequence text;
+    private ByteBuffer slots;
+    private int mask;
+    private int size;
+    LineFingerprintSet(CharSequence text) {
+        this.text = text;
+        this.slots = allocate(INITIAL_CAPACITY);
+        this.mask = INITIAL_CAPACITY - 1;}
+    static String removeDuplicateLines(CharSequence code) {
+        int end = code.length();
+        while (end > 0 && code.charAt(end - 1) == '\n') {
+            end--;}
+        LineFingerprintSet seen = new LineFingerprintSet(code);
+        StringBuilder out = new StringBuilder(end);
+        int lineStart = 0;
+        while (lineStart <= end) {
+            int lineEnd = CharSequences.indexOf(code, '\n', lineStart);
+            if (lineEnd < 0 || lineEnd > end) {
+                lineEnd = end;}
+            seen.appendIfNew(out, lineStart, lineEnd);
+            lineStart = lineEnd + 1;}
+        return out.toString();}
+    void appendIfNew(StringBuilder out, int start, int end) {
+        long span = trimIfNew(start, end);
+        if (span >= 0) {
+            if (size > 1) {
+                out.append('\n');}
+            out.append(text, (int) (span >>> 32), (int) span);}
+    }
+    long trimIfNew(int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;}
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;}
+        return add(start, end) ? (long) start << 32 | end : -1;}
+    boolean add(int start, int end) {
+        long fingerprint = fingerprint(start, end);
+        int slot = (int) fingerprint & mask;
+        while (true) {
+            int base = slot * SLOT_BYTES;
+            int storedLength = slots.getInt(base + 12);
+            if (storedLength == 0) {
+                store(base, fingerprint, start, end - start);
+                if (++size * 2 > mask + 1) {
+                    grow();}
+                return true;}
+            if (slots.getLong(base) == fingerprint && storedLength - 1 == end - start && sameSpan(slots.getInt(base + 8), start, end - start)) {
+                return false;}
+            slot = (slot + 1) & mask;}
+    }
+    private void store(int base, long fingerprint, int start, int length) {
+        slots.putLong(base, fingerprint);
+        slots.putInt(base + 8, start);
+        slots.putInt(base + 12, length + 1);}
+    private void grow() {
+        ByteBuffer old = slots;
+        int capacity = (mask + 1) * 2;
+        slots = allocate(capacity);
+        mask = capacity - 1;
+        for (int base = 0; base < old.capacity(); base += SLOT_BYTES) {
+            int storedLength = old.getInt(base + 12);
+            if (storedLength != 0) {
+                long fingerprint = old.getLong(base);
+                int slot = (int) fingerprint & mask;
+                while (slots.getInt(slot * SLOT_BYTES + 12) != 0) {
+                    slot = (slot + 1) & mask;}
+                store(slot * SLOT_BYTES, fingerprint, old.getInt(base + 8), storedLength - 1);}
+        }
+    }
+    private boolean sameSpan(int otherStart, int start, int length) {
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(otherStart + i) != text.charAt(start + i)) {
+                return false;}
+        }
+        return true;}
+    private long fingerprint(int start, int end) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ text.charAt(i)) * 0x100000001B3L;}
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);}
+    private static ByteBuffer allocate(int capacity) {
+        return OFF_HEAP ? ByteBuffer.allocateDirect(capacity * SLOT_BYTES) : ByteBuffer.allocate(capacity * SLOT_BYTES);}
+}
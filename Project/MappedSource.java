@@ -0,0 +1,146 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+final class MappedSource {
+    private final ByteBuffer bytes;
+    private final boolean ascii;
+    private final boolean loneCarriageReturn;
+    private MappedSource(ByteBuffer bytes) {
+        this.bytes = bytes;
+        int length = bytes.limit();
+        boolean ascii = true;
+        boolean loneCr = false;
+        for (int i = 0; i < length; i++) {
+            byte b = bytes.get(i);
+            if (b < 0) {
+                ascii = false;
+            } else if (b == '\r' && (i + 1 >= length || bytes.get(i + 1) != '\n')) {
+                loneCr = true;}
+        }
+        this.ascii = ascii;
+        this.loneCarriageReturn = loneCr;}
+    static MappedSource map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large to process: " + path);}
+            return new MappedSource(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));}
+    }
+    ByteBuffer bytes() {
+        return bytes.duplicate();}
+    boolean supportsByteLevelPath() {
+        Charset charset = Charset.defaultCharset();
+        boolean asciiCompatible = charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII) || charset.equals(StandardCharsets.ISO_8859_1);
+        return ascii && asciiCompatible && !loneCarriageReturn;}
+    CharSequence text() {
+        return new AsciiView(bytes, 0, bytes.limit());}
+    String decode() {
+        return Charset.defaultCharset().decode(bytes()).toString();}
+    CharSequence dedupedLines() {
+        LineFingerprintSet seen = new LineFingerprintSet(text());
+        LineView out = new LineView(bytes);
+        int length = bytes.limit();
+        int lineStart = 0;
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && bytes.get(lineEnd) != '\n') {
+                lineEnd++;}
+            int contentEnd = lineEnd > lineStart && bytes.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            boolean terminated = lineEnd < length;
+            if (!terminated || !isBlank(lineStart, contentEnd)) {
+                long span = seen.trimIfNew(lineStart, terminated ? lineEnd : length);
+                if (span >= 0) {
+                    out.add((int) (span >>> 32), (int) span);}
+            }
+            lineStart = lineEnd + 1;}
+        return out;}
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte b = bytes.get(i);
+            if (b != ' ' && b != '\t' && b != 0x0B && b != '\f') {
+                return false;}
+        }
+        return true;}
+    private static final class LineView implements CharSequence {
+        private final ByteBuffer bytes;
+        private int[] sourceStarts = new int[64];
+        private int[] outputStarts = new int[65];
+        private int lines;
+        private int cursor;
+        LineView(ByteBuffer bytes) {
+            this.bytes = bytes;}
+        void add(int start, int end) {
+            if (lines == sourceStarts.length) {
+                sourceStarts = Arrays.copyOf(sourceStarts, lines * 2);
+                outputStarts = Arrays.copyOf(outputStarts, lines * 2 + 1);}
+            int outputStart = outputStarts[lines];
+            sourceStarts[lines] = start;
+            outputStarts[++lines] = outputStart + end - start + 1;}
+        @Override
+        public int length() {
+            return lines == 0 ? 0 : outputStarts[lines] - 1;}
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length()) {
+                throw new IndexOutOfBoundsException("index " + index + ", length " + length());}
+            int line = cursor;
+            if (index < outputStarts[line] || index >= outputStarts[line + 1]) {
+                line = line + 1 < lines && index >= outputStarts[line + 1] && index < outputStarts[line + 2] ? line + 1 : find(index);
+                cursor = line;}
+            return index == outputStarts[line + 1] - 1 ? '\n' : (char) (bytes.get(sourceStarts[line] + index - outputStarts[line]) & 0xFF);}
+        private int find(int index) {
+            int low = 0;
+            int high = lines - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (outputStarts[mid] <= index) {
+                    low = mid;
+                } else {
+                    high = mid - 1;}
+            }
+            return low;}
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length() || start > end) {
+                throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length());}
+            StringBuilder span = new StringBuilder(end - start);
+            for (int i = start; i < end; i++) {
+                span.append(charAt(i));}
+            return span.toString();}
+        @Override
+        public String toString() {
+            return subSequence(0, length()).toString();}
+    }
+    private static final class AsciiView implements CharSequence {
+        private final ByteBuffer bytes;
+        private final int offset;
+        private final int length;
+        AsciiView(ByteBuffer bytes, int offset, int length) {
+            this.bytes = bytes;
+            this.offset = offset;
+            this.length = length;}
+        @Override
+        public int length() {
+            return length;}
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("index " + index + ", length " + length);}
+            return (char) (bytes.get(offset + index) & 0xFF);}
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length || start > end) {
+                throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);}
+            return new AsciiView(bytes, offset + start, end - start);}
+        @Override
+        public String toString() {
+            byte[] span = new byte[length];
+            bytes.get(offset, span);
+            return new String(span, StandardCharsets.ISO_8859_1);}
+    }
+}
@@ -0,0 +1,164 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntPredicate;
+final class MethodTable {
+    private static final int START = 0;
+    private static final int END = 1;
+    private static final int NAME_START = 2;
+    private static final int NAME_END = 3;
+    private static final int PARAMS_START = 4;
+    private static final int PARAMS_END = 5;
+    private static final int TYPE_START = 6;
+    private static final int TYPE_END = 7;
+    private static final int LINES = 8;
+    private static final int SIGNATURE = 9;
+    private static final int COMPLEXITY = 10;
+    private static final int NESTING = 11;
+    private static final int FIELDS = 12;
+    private final CharSequence source;
+    private final LanguageProfile profile;
+    private final Map<String, Integer> signatureIds = new HashMap<>();
+    private int[] rows = new int[FIELDS * 8];
+    private int rowCount;
+    private int[] live = new int[8];
+    private int size;
+    private String[] signatures = new String[8];
+    private int[] signatureRows = new int[8];
+    MethodTable(CharSequence source, LanguageProfile profile) {
+        this.source = source;
+        this.profile = profile;}
+    void add(int start, int bodyStart, int end, int nameStart, int nameEnd, int paramsStart, int paramsEnd, int typeStart, int typeEnd) {
+        int row = newRow(start, end, nameStart, nameEnd, paramsStart, paramsEnd, typeStart, typeEnd);
+        rows[row * FIELDS + LINES] = CharSequences.lineCount(source, start, end);
+        assign(row, CharSequences.trimmed(source, start, bodyStart));}
+    void add(int start, int end) {
+        int row = newRow(start, end, -1, -1, -1, -1, -1, -1);
+        String text = CharSequences.substring(source, start, end);
+        rows[row * FIELDS + LINES] = text.split("\n").length;
+        assign(row, profile.extractMethodSignature(text));}
+    void addAll(MethodTable part, int offset) {
+        for (int i = 0; i < part.size; i++) {
+            int base = part.live[i] * FIELDS;
+            int[] r = part.rows;
+            int row = newRow(r[base + START] + offset, r[base + END] + offset, shift(r[base + NAME_START], offset), shift(r[base + NAME_END], offset),
+                    shift(r[base + PARAMS_START], offset), shift(r[base + PARAMS_END], offset), shift(r[base + TYPE_START], offset), shift(r[base + TYPE_END], offset));
+            rows[row * FIELDS + LINES] = r[base + LINES];
+            rows[row * FIELDS + COMPLEXITY] = r[base + COMPLEXITY];
+            rows[row * FIELDS + NESTING] = r[base + NESTING];
+            assign(row, part.signatures[r[base + SIGNATURE]]);}
+    }
+    MethodTable copy() {
+        MethodTable copy = new MethodTable(source, profile);
+        copy.signatureIds.putAll(signatureIds);
+        copy.rows = rows.clone();
+        copy.rowCount = rowCount;
+        copy.live = live.clone();
+        copy.size = size;
+        copy.signatures = signatures.clone();
+        copy.signatureRows = signatureRows.clone();
+        return copy;}
+    long footprint() {
+        long bytes = 96 + 4L * (rows.length + live.length + signatureRows.length) + 8L * signatures.length;
+        for (String signature : signatureIds.keySet()) {
+            bytes += 80 + 2L * signature.length();}
+        return bytes;}
+    int size() {
+        return size;}
+    boolean isEmpty() {
+        return size == 0;}
+    int start(int i) {
+        return field(i, START);}
+    int end(int i) {
+        return field(i, END);}
+    String text(int i) {
+        return CharSequences.substring(source, field(i, START), field(i, END));}
+    CharSequence view(int i) {
+        return CharSequences.view(source, field(i, START), field(i, END));}
+    void appendTo(StringBuilder out, int i) {
+        out.append(source, field(i, START), field(i, END));}
+    boolean contains(int i, String term) {
+        return CharSequences.indexOf(source, term, field(i, START), field(i, END)) >= 0;}
+    String signature(int i) {
+        return signatures[field(i, SIGNATURE)];}
+    String name(int i) {
+        return field(i, NAME_START) < 0 ? profile.extractMethodName(text(i)) : CharSequences.substring(source, field(i, NAME_START), field(i, NAME_END));}
+    int lines(int i) {
+        return rows[detailRow(i) * FIELDS + LINES];}
+    int complexity(int i) {
+        return rows[detailRow(i) * FIELDS + COMPLEXITY];}
+    int nesting(int i) {
+        return rows[detailRow(i) * FIELDS + NESTING];}
+    void measure(int i, int complexity, int nesting) {
+        rows[live[i] * FIELDS + COMPLEXITY] = complexity;
+        rows[live[i] * FIELDS + NESTING] = nesting;}
+    String parameters(int i) {
+        int base = detailRow(i) * FIELDS;
+        if (rows[base + NAME_START] < 0) {
+            return profile.extractMethodParameters(CharSequences.substring(source, rows[base + START], rows[base + END]));}
+        return CharSequences.trimmed(source, rows[base + PARAMS_START], rows[base + PARAMS_END]);}
+    String returnType(int i) {
+        int base = detailRow(i) * FIELDS;
+        if (rows[base + NAME_START] < 0) {
+            return profile.extractMethodReturnType(CharSequences.substring(source, rows[base + START], rows[base + END]));}
+        return rows[base + TYPE_START] < 0 ? "unknown" : CharSequences.trimmed(source, rows[base + TYPE_START], rows[base + TYPE_END]);}
+    void removeDuplicateSignatures() {
+        boolean[] seen = new boolean[signatureIds.size()];
+        retain(i -> {
+            int id = field(i, SIGNATURE);
+            if (seen[id]) {
+                return false;}
+            seen[id] = true;
+            return true;});
+    }
+    void clear() {
+        size = 0;}
+    void retain(IntPredicate keep) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (keep.test(i)) {
+                live[kept++] = live[i];}
+        }
+        size = kept;}
+    int[] byLinesDescending() {
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = (long) (Integer.MAX_VALUE - lines(i)) << 32 | i;}
+        return SpanList.order(keys);}
+    private int field(int i, int field) {
+        return rows[live[i] * FIELDS + field];}
+    private int detailRow(int i) {
+        return signatureRows[field(i, SIGNATURE)];}
+    private int newRow(int start, int end, int nameStart, int nameEnd, int paramsStart, int paramsEnd, int typeStart, int typeEnd) {
+        if ((rowCount + 1) * FIELDS > rows.length) {
+            rows = Arrays.copyOf(rows, rows.length * 2);}
+        int row = rowCount++;
+        int base = row * FIELDS;
+        rows[base + START] = start;
+        rows[base + END] = end;
+        rows[base + NAME_START] = nameStart;
+        rows[base + NAME_END] = nameEnd;
+        rows[base + PARAMS_START] = paramsStart;
+        rows[base + PARAMS_END] = paramsEnd;
+        rows[base + TYPE_START] = typeStart;
+        rows[base + TYPE_END] = typeEnd;
+        rows[base + COMPLEXITY] = 1;
+        rows[base + NESTING] = 0;
+        if (size == live.length) {
+            live = Arrays.copyOf(live, size * 2);}
+        live[size++] = row;
+        return row;}
+    private void assign(int row, String signature) {
+        Integer id = signatureIds.get(signature);
+        if (id == null) {
+            id = signatureIds.size();
+            signatureIds.put(signature, id);
+            if (id == signatures.length) {
+                signatures = Arrays.copyOf(signatures, id * 2);
+                signatureRows = Arrays.copyOf(signatureRows, id * 2);}
+            signatures[id] = signature;}
+        rows[row * FIELDS + SIGNATURE] = id;
+        signatureRows[id] = row;}
+    private static int shift(int position, int offset) {
+        return position < 0 ? position : position + offset;}
+}
@@ -0,0 +1,231 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+final class NearDuplicateDetector {
+    static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("processor.nearDuplicates", "true"));
+    private static final double THRESHOLD = Double.parseDouble(System.getProperty("processor.nearDuplicateThreshold", "0.8"));
+    private static final int BANDS = Math.max(1, Integer.getInteger("processor.nearDuplicateBands", 16));
+    private static final int ROWS = Math.max(1, Integer.getInteger("processor.nearDuplicateRows", 4));
+    private static final int SHINGLE = Math.max(1, Integer.getInteger("processor.nearDuplicateShingle", 5));
+    private static final int MIN_TOKENS = 20;
+    private static final int MAX_REPRESENTATIVES = 16;
+    private static final int HASHES = BANDS * ROWS;
+    private static final long[] MULTIPLIERS = new long[HASHES];
+    private static final long[] INCREMENTS = new long[HASHES];
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EEDL);
+        for (int i = 0; i < HASHES; i++) {
+            MULTIPLIERS[i] = random.nextLong() | 1;
+            INCREMENTS[i] = random.nextLong();}
+    }
+    static final class Sketch {
+        final String signature;
+        final int lines;
+        final int[] minHashes;
+        Sketch(String signature, int lines, int[] minHashes) {
+            this.signature = signature;
+            this.lines = lines;
+            this.minHashes = minHashes;}
+        void writeTo(DataOutput out) throws IOException {
+            FileRecord.writeString(out, signature);
+            out.writeInt(lines);
+            out.writeInt(minHashes.length);
+            for (int hash : minHashes) {
+                out.writeInt(hash);}
+        }
+        static Sketch readFrom(DataInput in) throws IOException {
+            String signature = FileRecord.readString(in);
+            int lines = in.readInt();
+            int[] minHashes = new int[in.readInt()];
+            for (int i = 0; i < minHashes.length; i++) {
+                minHashes[i] = in.readInt();}
+            return new Sketch(signature, lines, minHashes);}
+    }
+    private static final class Member {
+        final String path;
+        final int ordinal;
+        final Sketch sketch;
+        final long[] bandKeys = new long[BANDS];
+        final Member[] links = new Member[BANDS];
+        int index;
+        Member(String path, int ordinal, Sketch sketch) {
+            this.path = path;
+            this.ordinal = ordinal;
+            this.sketch = sketch;
+            for (int band = 0; band < BANDS; band++) {
+                bandKeys[band] = bandKey(sketch, band);}
+        }
+    }
+    private static final Comparator<Member> ORDER = Comparator.comparing((Member member) -> member.path).thenComparingInt(member -> member.ordinal);
+    private final Map<String, List<Member>> files = new TreeMap<>();
+    private final List<Map<Long, List<Member>>> buckets = new ArrayList<>(BANDS);
+    private int size;
+    NearDuplicateDetector() {
+        for (int band = 0; band < BANDS; band++) {
+            buckets.add(new HashMap<>());}
+    }
+    static String settings() {
+        return ENABLED ? THRESHOLD + "/" + BANDS + "x" + ROWS + "/" + SHINGLE : "off";}
+    static Sketch sketch(String signature, int lines, CharSequence method) {
+        long[] tokens = tokenHashes(method);
+        if (tokens.length < MIN_TOKENS) {
+            return null;}
+        int[] minHashes = new int[HASHES];
+        Arrays.fill(minHashes, Integer.MAX_VALUE);
+        for (int start = 0; start + SHINGLE <= tokens.length; start++) {
+            long shingle = 0;
+            for (int j = start; j < start + SHINGLE; j++) {
+                shingle = shingle * 0x9E3779B97F4A7C15L + tokens[j];}
+            shingle = mix(shingle);
+            for (int i = 0; i < HASHES; i++) {
+                int hash = (int) ((MULTIPLIERS[i] * shingle + INCREMENTS[i]) >>> 32);
+                if (hash < minHashes[i]) {
+                    minHashes[i] = hash;}
+            }
+        }
+        return new Sketch(signature, lines, minHashes);}
+    void add(String path, List<Sketch> sketches) {
+        remove(path);
+        List<Member> added = new ArrayList<>();
+        for (Sketch sketch : sketches) {
+            if (sketch.minHashes.length == HASHES) {
+                Member member = new Member(path, added.size(), sketch);
+                added.add(member);
+                for (int band = 0; band < BANDS; band++) {
+                    List<Member> bucket = buckets.get(band).computeIfAbsent(member.bandKeys[band], key -> new ArrayList<>());
+                    int position = -Collections.binarySearch(bucket, member, ORDER) - 1;
+                    bucket.add(position, member);
+                    if (position < MAX_REPRESENTATIVES) {
+                        relink(bucket, band, position);
+                    } else {
+                        link(member, bucket, band);}
+                }
+            }
+        }
+        if (!added.isEmpty()) {
+            files.put(path, added);
+            size += added.size();}
+    }
+    void remove(String path) {
+        List<Member> removed = files.remove(path);
+        if (removed == null) {
+            return;}
+        size -= removed.size();
+        for (Member member : removed) {
+            for (int band = 0; band < BANDS; band++) {
+                List<Member> bucket = buckets.get(band).get(member.bandKeys[band]);
+                int position = Collections.binarySearch(bucket, member, ORDER);
+                bucket.remove(position);
+                if (bucket.isEmpty()) {
+                    buckets.get(band).remove(member.bandKeys[band]);
+                } else if (position < MAX_REPRESENTATIVES) {
+                    relink(bucket, band, position);}
+            }
+        }
+    }
+    private static void relink(List<Member> bucket, int band, int changed) {
+        for (Member member : bucket) {
+            Member link = member.links[band];
+            int position = link == null ? -1 : bucket.subList(0, Math.min(MAX_REPRESENTATIVES, bucket.size())).indexOf(link);
+            if (position < 0 || position >= changed) {
+                link(member, bucket, band);}
+        }
+    }
+    private static void link(Member member, List<Member> bucket, int band) {
+        member.links[band] = null;
+        for (int i = 0; i < bucket.size() && i < MAX_REPRESENTATIVES; i++) {
+            Member representative = bucket.get(i);
+            if (representative != member && similarity(member.sketch, representative.sketch) >= THRESHOLD) {
+                member.links[band] = representative;
+                return;}
+        }
+    }
+    String report() {
+        List<Member> members = new ArrayList<>(size);
+        for (List<Member> file : files.values()) {
+            members.addAll(file);}
+        int[] parent = new int[members.size()];
+        for (int m = 0; m < parent.length; m++) {
+            parent[m] = m;
+            members.get(m).index = m;}
+        for (int m = 0; m < parent.length; m++) {
+            for (Member link : members.get(m).links) {
+                if (link != null) {
+                    parent[find(parent, m)] = find(parent, link.index);}
+            }
+        }
+        Map<Integer, List<Integer>> groups = new HashMap<>();
+        for (int m = 0; m < members.size(); m++) {
+            groups.computeIfAbsent(find(parent, m), root -> new ArrayList<>()).add(m);}
+        List<List<Integer>> clusters = new ArrayList<>();
+        for (List<Integer> group : groups.values()) {
+            if (group.size() > 1) {
+                clusters.add(group);}
+        }
+        clusters.sort(Comparator.comparingInt((List<Integer> group) -> -group.size()).thenComparingInt(group -> group.get(0)));
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "Near-Duplicate Methods (threshold %.2f, %d bands x %d rows, %d methods compared):%n", THRESHOLD, BANDS, ROWS, members.size()));
+        if (clusters.isEmpty()) {
+            report.append("  None found\n");}
+        for (int c = 0; c < clusters.size(); c++) {
+            List<Integer> cluster = clusters.get(c);
+            Sketch first = members.get(cluster.get(0)).sketch;
+            report.append("  Cluster ").append(c + 1).append(" (").append(cluster.size()).append(" methods):\n");
+            for (int m : cluster) {
+                Member member = members.get(m);
+                report.append(String.format(Locale.ROOT, "    - %s: %s (%d lines, similarity %.2f)%n", member.path, member.sketch.signature, member.sketch.lines, similarity(first, member.sketch)));}
+        }
+        report.append("----------------------------------------\n");
+        return report.toString();}
+    private static long bandKey(Sketch sketch, int band) {
+        long key = band;
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            key = key * 0x9E3779B97F4A7C15L + sketch.minHashes[row];}
+        return mix(key);}
+    private static double similarity(Sketch a, Sketch b) {
+        int same = 0;
+        for (int i = 0; i < HASHES; i++) {
+            if (a.minHashes[i] == b.minHashes[i]) {
+                same++;}
+        }
+        return (double) same / HASHES;}
+    private static int find(int[] parent, int m) {
+        while (parent[m] != m) {
+            parent[m] = parent[parent[m]];
+            m = parent[m];}
+        return m;}
+    private static long[] tokenHashes(CharSequence text) {
+        long[] tokens = new long[64];
+        int count = 0;
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;}
+            long hash = 0xCBF29CE484222325L;
+            if (Character.isLetterOrDigit(c) || c == '_') {
+                while (i < text.length() && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '_')) {
+                    hash = (hash ^ text.charAt(i++)) * 0x100000001B3L;}
+            } else {
+                hash = (hash ^ c) * 0x100000001B3L;
+                i++;}
+            if (count == tokens.length) {
+                tokens = Arrays.copyOf(tokens, count * 2);}
+            tokens[count++] = hash;}
+        return Arrays.copyOf(tokens, count);}
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);}
+}
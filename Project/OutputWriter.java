@@ -0,0 +1,114 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+final class OutputWriter implements Closeable {
+    private final Path directory;
+    private final ExecutorService pool;
+    private final Semaphore pending;
+    private final int maxPending;
+    private final AtomicInteger written = new AtomicInteger();
+    private final AtomicInteger unchanged = new AtomicInteger();
+    private final AtomicInteger deleted = new AtomicInteger();
+    private IOException failure;
+    OutputWriter(Path directory, int threads, int maxPending) throws IOException {
+        this.directory = directory;
+        this.maxPending = maxPending;
+        this.pending = new Semaphore(maxPending);
+        this.pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "processor-output-writer");
+            thread.setDaemon(true);
+            return thread;});
+        Files.createDirectories(directory);}
+    void submit(String relativePath, String edited) throws IOException {
+        Path target = resolve(relativePath);
+        pending.acquireUninterruptibly();
+        try {
+            pool.execute(() -> {
+                try {
+                    write(target, edited.getBytes());
+                } catch (IOException e) {
+                    fail(e);
+                } finally {
+                    pending.release();}
+            });
+        } catch (RuntimeException e) {
+            pending.release();
+            throw e;}
+    }
+    void delete(String relativePath) throws IOException {
+        if (Files.deleteIfExists(resolve(relativePath))) {
+            deleted.incrementAndGet();
+            System.out.println("Deleted: " + resolve(relativePath));}
+    }
+    void retain(Set<String> relativePaths) throws IOException {
+        pending.acquireUninterruptibly(maxPending);
+        try {
+            List<Path> stale;
+            try (Stream<Path> walk = Files.walk(directory)) {
+                stale = walk.filter(Files::isRegularFile)
+                        .filter(path -> !relativePaths.contains(directory.relativize(path).toString().replace(path.getFileSystem().getSeparator(), "/")))
+                        .collect(Collectors.toList());}
+            for (Path path : stale) {
+                delete(directory.relativize(path).toString());}
+        } finally {
+            pending.release(maxPending);}
+    }
+    int written() {
+        return written.get();}
+    int unchanged() {
+        return unchanged.get();}
+    int deleted() {
+        return deleted.get();}
+    private Path resolve(String relativePath) throws IOException {
+        Path target = directory.resolve(relativePath).normalize();
+        if (!target.startsWith(directory)) {
+            throw new IOException("Output path escapes " + directory + ": " + relativePath);}
+        return target;}
+    private void write(Path target, byte[] content) throws IOException {
+        if (sameContent(target, content)) {
+            unchanged.incrementAndGet();
+            return;}
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + "." + Thread.currentThread().getId() + ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);}
+        written.incrementAndGet();
+        System.out.println("Saved: " + target);}
+    private static boolean sameContent(Path target, byte[] content) throws IOException {
+        try {
+            if (Files.size(target) != content.length) {
+                return false;}
+            return ResultCache.hash(Files.readAllBytes(target)).equals(ResultCache.hash(content));
+        } catch (NoSuchFileException e) {
+            return false;}
+    }
+    private synchronized void fail(IOException e) {
+        if (failure == null) {
+            failure = e;
+        } else {
+            failure.addSuppressed(e);}
+    }
+    @Override
+    public void close() throws IOException {
+        pending.acquireUninterruptibly(maxPending);
+        pool.shutdown();
+        synchronized (this) {
+            if (failure != null) {
+                throw failure;}
+        }
+    }
+}
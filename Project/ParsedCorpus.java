@@ -0,0 +1,84 @@
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+final class ParsedCorpus {
+    private static final long BUDGET_BYTES = Math.max(0, Long.getLong("processor.parsedCacheMB", Runtime.getRuntime().maxMemory() / 4 >> 20)) << 20;
+    private static volatile ParsedCorpus session;
+    static final class Entry {
+        final AdvancedCodeProcessor.CodeStructure structure;
+        final String contentHash;
+        private final long size;
+        private final long modified;
+        private final long bytes;
+        private Entry(AdvancedCodeProcessor.CodeStructure structure, String contentHash, long size, long modified, long bytes) {
+            this.structure = structure;
+            this.contentHash = contentHash;
+            this.size = size;
+            this.modified = modified;
+            this.bytes = bytes;}
+    }
+    private final long budget;
+    private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long used;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private ParsedCorpus(long budget) {
+        this.budget = budget;}
+    static void startSession() {
+        if (session == null && BUDGET_BYTES > 0) {
+            session = new ParsedCorpus(BUDGET_BYTES);}
+    }
+    static ParsedCorpus session() {
+        return session;}
+    synchronized Entry get(Path file, BasicFileAttributes attributes) {
+        Entry entry = entries.get(key(file));
+        if (entry != null && entry.size == attributes.size() && entry.modified == attributes.lastModifiedTime().toMillis()) {
+            hits++;
+            return entry;}
+        misses++;
+        return null;}
+    synchronized void put(Path file, BasicFileAttributes attributes, AdvancedCodeProcessor.CodeStructure structure, String contentHash) {
+        Path key = key(file);
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            used -= previous.bytes;}
+        long bytes = footprint(structure);
+        if (bytes > budget) {
+            return;}
+        entries.put(key, new Entry(structure, contentHash, attributes.size(), attributes.lastModifiedTime().toMillis(), bytes));
+        used += bytes;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (used > budget) {
+            used -= eldest.next().bytes;
+            eldest.remove();
+            evictions++;}
+    }
+    synchronized void startRun() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;}
+    synchronized String summary() {
+        return String.format(Locale.ROOT, "Parsed cache: %d hits, %d misses, %d evicted, %d files in %.1f of %.1f MB%n",
+                hits, misses, evictions, entries.size(), used / (1024.0 * 1024.0), budget / (1024.0 * 1024.0));}
+    private static long footprint(AdvancedCodeProcessor.CodeStructure structure) {
+        long bytes = 512 + 2L * structure.source.length();
+        if (structure.originalCode != null && structure.originalCode != structure.source) {
+            bytes += 2L * structure.originalCode.length();}
+        bytes += structure.imports.footprint() + structure.classes.footprint() + structure.variables.footprint() + structure.methods.footprint();
+        for (Map.Entry<String, Integer> usage : structure.variableUsage.entrySet()) {
+            bytes += 64 + 2L * usage.getKey().length();}
+        for (List<String> symbols : structure.symbols.values()) {
+            for (String symbol : symbols) {
+                bytes += 48 + 2L * symbol.length();}
+        }
+        for (NearDuplicateDetector.Sketch sketch : structure.sketches) {
+            bytes += 64 + 2L * sketch.signature.length() + 4L * sketch.minHashes.length;}
+        return bytes;}
+    private static Path key(Path file) {
+        return file.toAbsolutePath().normalize();}
+}
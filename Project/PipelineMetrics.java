@@ -0,0 +1,232 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+final class PipelineMetrics {
+    enum Stage {
+        READ, CACHE, INDEX, EXTRACT, DEDUP, VARIABLES, REPORT, EDIT, WRITE
+    }
+    static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("processor.metrics", "true"));
+    private static final int TOP_N = Integer.getInteger("processor.metricsTopN", 10);
+    private static final Stage[] STAGES = Stage.values();
+    static final class FileTiming {
+        final String path;
+        final long bytes;
+        final long[] stageNanos = new long[STAGES.length];
+        final long started = System.nanoTime();
+        int lines;
+        long totalNanos;
+        private final FileProcessedEvent event = new FileProcessedEvent();
+        FileTiming(String path, long bytes) {
+            this.path = path;
+            this.bytes = bytes;
+            event.begin();}
+    }
+    private final Histogram[] stages = new Histogram[STAGES.length];
+    private final Histogram files = new Histogram();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder lines = new LongAdder();
+    private final PriorityQueue<FileTiming> slowest = new PriorityQueue<>(Comparator.comparingLong(timing -> timing.totalNanos));
+    private final long started = System.nanoTime();
+    PipelineMetrics() {
+        for (int i = 0; i < stages.length; i++) {
+            stages[i] = new Histogram();}
+    }
+    static PipelineMetrics create() {
+        return ENABLED ? new PipelineMetrics() : null;}
+    FileTiming startFile(String path, long size) {
+        return new FileTiming(path, size);}
+    static long begin(FileTiming timing) {
+        return timing == null ? 0 : System.nanoTime();}
+    static void end(FileTiming timing, Stage stage, long begin) {
+        if (timing != null) {
+            timing.stageNanos[stage.ordinal()] += System.nanoTime() - begin;}
+    }
+    static void lines(FileTiming timing, int lines) {
+        if (timing != null) {
+            timing.lines = lines;}
+    }
+    void finishFile(FileTiming timing) {
+        timing.totalNanos = System.nanoTime() - timing.started;
+        for (int i = 0; i < STAGES.length; i++) {
+            if (timing.stageNanos[i] > 0) {
+                stages[i].record(timing.stageNanos[i]);}
+        }
+        files.record(timing.totalNanos);
+        bytes.add(timing.bytes);
+        lines.add(timing.lines);
+        synchronized (slowest) {
+            slowest.add(timing);
+            if (slowest.size() > TOP_N) {
+                slowest.poll();}
+        }
+        FileProcessedEvent event = timing.event;
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = timing.path;
+            event.bytes = timing.bytes;
+            event.lines = timing.lines;
+            event.readTime = timing.stageNanos[Stage.READ.ordinal()];
+            event.cacheTime = timing.stageNanos[Stage.CACHE.ordinal()];
+            event.indexTime = timing.stageNanos[Stage.INDEX.ordinal()];
+            event.extractTime = timing.stageNanos[Stage.EXTRACT.ordinal()];
+            event.dedupTime = timing.stageNanos[Stage.DEDUP.ordinal()];
+            event.variablesTime = timing.stageNanos[Stage.VARIABLES.ordinal()];
+            event.reportTime = timing.stageNanos[Stage.REPORT.ordinal()];
+            event.editTime = timing.stageNanos[Stage.EDIT.ordinal()];
+            event.writeTime = timing.stageNanos[Stage.WRITE.ordinal()];
+            event.commit();}
+    }
+    String summary() {
+        long wallNanos = System.nanoTime() - started;
+        double seconds = Math.max(wallNanos, 1) / 1e9;
+        StringBuilder summary = new StringBuilder();
+        summary.append("Pipeline Metrics:\n");
+        summary.append(String.format(Locale.ROOT, "  Files: %d, Bytes: %d, Lines: %d, Wall Time: %.1f ms%n", files.count(), bytes.sum(), lines.sum(), wallNanos / 1e6));
+        summary.append(String.format(Locale.ROOT, "  Throughput: %.2f MB/s, %.0f lines/s, %.1f files/s%n", bytes.sum() / (1024.0 * 1024.0) / seconds, lines.sum() / seconds, files.count() / seconds));
+        summary.append(String.format(Locale.ROOT, "  %-10s %8s %11s %9s %9s %9s %9s%n", "Stage", "Count", "Total ms", "p50 ms", "p90 ms", "p99 ms", "Max ms"));
+        for (int i = 0; i < STAGES.length; i++) {
+            appendRow(summary, STAGES[i].name().toLowerCase(Locale.ROOT), stages[i]);}
+        appendRow(summary, "file", files);
+        List<FileTiming> top;
+        synchronized (slowest) {
+            top = new ArrayList<>(slowest);}
+        top.sort(Comparator.comparingLong((FileTiming timing) -> timing.totalNanos).reversed());
+        summary.append("  Slowest Files:\n");
+        for (FileTiming timing : top) {
+            summary.append(String.format(Locale.ROOT, "    - %s: %.2f ms (%d bytes", timing.path, timing.totalNanos / 1e6, timing.bytes));
+            for (int i = 0; i < STAGES.length; i++) {
+                if (timing.stageNanos[i] > 0) {
+                    summary.append(String.format(Locale.ROOT, ", %s %.2f", STAGES[i].name().toLowerCase(Locale.ROOT), timing.stageNanos[i] / 1e6));}
+            }
+            summary.append(")\n");}
+        summary.append("----------------------------------------\n");
+        RunCompletedEvent event = new RunCompletedEvent();
+        if (event.shouldCommit()) {
+            event.files = files.count();
+            event.bytes = bytes.sum();
+            event.lines = lines.sum();
+            event.wallTime = wallNanos;
+            event.commit();}
+        return summary.toString();}
+    private static void appendRow(StringBuilder summary, String name, Histogram histogram) {
+        summary.append(String.format(Locale.ROOT, "  %-10s %8d %11.1f %9.2f %9.2f %9.2f %9.2f%n", name, histogram.count(), histogram.total() / 1e6,
+                histogram.percentile(0.50) / 1e6, histogram.percentile(0.90) / 1e6, histogram.percentile(0.99) / 1e6, histogram.max() / 1e6));}
+    static final class Histogram {
+        private static final int SUB_BUCKETS = 4;
+        private final AtomicLongArray buckets = new AtomicLongArray(64 * SUB_BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private volatile long max;
+        void record(long nanos) {
+            buckets.incrementAndGet(bucket(nanos));
+            count.increment();
+            total.add(nanos);
+            if (nanos > max) {
+                synchronized (this) {
+                    if (nanos > max) {
+                        max = nanos;}
+                }
+            }
+        }
+        long count() {
+            return count.sum();}
+        long total() {
+            return total.sum();}
+        long max() {
+            return max;}
+        long percentile(double quantile) {
+            long samples = count();
+            if (samples == 0) {
+                return 0;}
+            long rank = (long) Math.ceil(quantile * samples);
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), max);}
+            }
+            return max;}
+        private static int bucket(long nanos) {
+            if (nanos < SUB_BUCKETS) {
+                return (int) Math.max(nanos, 0);}
+            int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+            int sub = (int) (nanos >>> (exponent - 2)) & (SUB_BUCKETS - 1);
+            return exponent * SUB_BUCKETS + sub;}
+        private static long upperBound(int bucket) {
+            int exponent = bucket / SUB_BUCKETS;
+            int sub = bucket % SUB_BUCKETS;
+            if (exponent < 2) {
+                return bucket;}
+            return ((long) (SUB_BUCKETS + sub + 1) << (exponent - 2)) - 1;}
+    }
+    @Name("processor.FileProcessed")
+    @Label("File Processed")
+    @Category("Advanced Code Processor")
+    @Description("One source file through the processing pipeline, with time spent per stage")
+    @StackTrace(false)
+    static final class FileProcessedEvent extends Event {
+        @Label("Path")
+        String path;
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+        @Label("Lines")
+        int lines;
+        @Label("Read")
+        @Timespan
+        long readTime;
+        @Label("Cache")
+        @Timespan
+        long cacheTime;
+        @Label("Search Index")
+        @Timespan
+        long indexTime;
+        @Label("Extract Structure")
+        @Timespan
+        long extractTime;
+        @Label("Deduplicate")
+        @Timespan
+        long dedupTime;
+        @Label("Variable Usage")
+        @Timespan
+        long variablesTime;
+        @Label("Report")
+        @Timespan
+        long reportTime;
+        @Label("Edit")
+        @Timespan
+        long editTime;
+        @Label("Write")
+        @Timespan
+        long writeTime;
+    }
+    @Name("processor.RunCompleted")
+    @Label("Run Completed")
+    @Category("Advanced Code Processor")
+    @Description("Totals for one processDirectory run")
+    @StackTrace(false)
+    static final class RunCompletedEvent extends Event {
+        @Label("Files")
+        long files;
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+        @Label("Lines")
+        long lines;
+        @Label("Wall Time")
+        @Timespan
+        long wallTime;
+    }
+}
@@ -0,0 +1,87 @@
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+final class ProcessorDaemon {
+    private static final String SHUTDOWN = "shutdown";
+    private final ServerSocket server;
+    private final Object jobLock = new Object();
+    private final AtomicLong jobIds = new AtomicLong();
+    private final ExecutorService connections = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "processor-daemon-connection");
+        thread.setDaemon(true);
+        return thread;});
+    private ProcessorDaemon(ServerSocket server) {
+        this.server = server;}
+    static void serve(int port) throws IOException {
+        AdvancedCodeProcessor.startSession();
+        try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            System.out.println("Daemon listening on " + server.getInetAddress().getHostAddress() + ":" + server.getLocalPort());
+            new ProcessorDaemon(server).acceptLoop();}
+        System.out.println("Daemon stopped.");}
+    private void acceptLoop() throws IOException {
+        try {
+            while (!server.isClosed()) {
+                Socket socket = server.accept();
+                connections.execute(() -> handle(socket));}
+        } catch (SocketException e) {
+            if (!server.isClosed()) {
+                throw e;}
+        } finally {
+            connections.shutdownNow();}
+    }
+    private void handle(Socket socket) {
+        try (Socket connection = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8), true)) {
+            StringBuilder spec = new StringBuilder();
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.trim().equalsIgnoreCase(SHUTDOWN) && spec.length() == 0) {
+                    out.println("OK shutdown");
+                    server.close();
+                    return;}
+                if (!line.trim().isEmpty()) {
+                    spec.append(line).append('\n');
+                    continue;}
+                if (spec.length() > 0) {
+                    out.println(runJob(spec.toString()));
+                    spec.setLength(0);}
+            }
+            if (spec.length() > 0) {
+                out.println(runJob(spec.toString()));}
+        } catch (IOException e) {
+            AdvancedCodeProcessor.logError("Daemon connection error: " + e.getMessage());}
+    }
+    private String runJob(String spec) {
+        long id = jobIds.incrementAndGet();
+        long submitted = System.nanoTime();
+        JobSpec job;
+        try {
+            Properties properties = new Properties();
+            properties.load(new StringReader(spec));
+            job = JobSpec.fromProperties(properties);
+        } catch (IOException | IllegalArgumentException e) {
+            return "ERROR job " + id + ": " + e.getMessage();}
+        synchronized (jobLock) {
+            long started = System.nanoTime();
+            try {
+                AdvancedCodeProcessor.runJob(job);
+                long finished = System.nanoTime();
+                String result = "OK job " + id + " in " + millis(finished - started) + " ms (queued " + millis(started - submitted) + " ms)";
+                System.out.println(result + ": " + job);
+                return result;
+            } catch (Exception e) {
+                AdvancedCodeProcessor.logError("Daemon job " + id + " failed: " + e.getMessage());
+                return "ERROR job " + id + " after " + millis(System.nanoTime() - started) + " ms: " + e.getMessage();}
+        }
+    }
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;}
+}
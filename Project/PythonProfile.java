@@ -0,0 +1,85 @@
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+final class PythonProfile extends LanguageProfile {
+    private static final GuardedPattern IMPORT = new GuardedPattern("python.import", "^(import|from)\\s+.*$", Pattern.MULTILINE);
+    private static final GuardedPattern CLASS = new GuardedPattern("python.class", "^class\\s+\\w+.*?:[\\s\\S]*?(?=^\\w|$)", Pattern.MULTILINE);
+    private static final GuardedPattern METHOD = new GuardedPattern("python.method", "^def\\s+(\\w+)\\s*\\([^)]*\\):[\\s\\S]*?(?=^\\w|$)", Pattern.MULTILINE);
+    private static final GuardedPattern VARIABLE = new GuardedPattern("python.variable", "^\\w+\\s*=\\s*[^\\n]+", Pattern.MULTILINE);
+    private static final GuardedPattern METHOD_BODY = new GuardedPattern("python.methodBody", "(?s):[\\s\\S]*", method -> before(method, ':'));
+    private static final GuardedPattern METHOD_NAME = new GuardedPattern("python.methodName", "(?s)def\\s+(\\w+)\\s*\\([^)]*\\):.*", GuardedPattern.UNKNOWN);
+    private static final GuardedPattern METHOD_PARAMETERS = new GuardedPattern("python.methodParameters", "(?s)def\\s+\\w+\\s*\\(([^)]*)\\):.*", GuardedPattern.UNKNOWN);
+    private static final GuardedPattern VARIABLE_NAME = new GuardedPattern("python.variableName", "(?s)(\\w+)\\s*=.*", GuardedPattern.UNKNOWN);
+    private static final Pattern DEF_HEADER = Pattern.compile("^def\\s+(\\w+)\\s*\\([^)]*\\):", Pattern.MULTILINE);
+    private static final Pattern CONTINUATION = Pattern.compile("(else|elif|except|finally)\\b");
+    private static final Pattern PRINT = Pattern.compile("print\\(");
+    PythonProfile() {
+        super(".py");}
+    @Override
+    void extractStructure(AdvancedCodeProcessor.CodeStructure structure, CharSequence code) {
+        collect(IMPORT, code, structure.imports);
+        collect(CLASS, code, structure.classes);
+        collect(METHOD, code, structure.methods);
+        collect(VARIABLE, code, structure.variables);
+    }
+    @Override
+    String extractMethodSignature(String method) {
+        return rewrite(METHOD_BODY, method, "").trim();}
+    @Override
+    String extractMethodName(String method) {
+        return rewrite(METHOD_NAME, method, "$1").trim();}
+    @Override
+    String extractMethodParameters(String method) {
+        return rewrite(METHOD_PARAMETERS, method, "$1").trim();}
+    @Override
+    String extractVariableName(String variable) {
+        return rewrite(VARIABLE_NAME, variable, "$1").trim();}
+    @Override
+    void addDocumentation(CharSequence code, EditPipeline.Stage out) {
+        insertBeforeMatches(DEF_HEADER, code, out, (doc, matcher) -> doc.append("\"\"\"").append("\n")
+                .append("Function: ").append(matcher.group(1)).append("\n")
+                .append("Description: Auto-generated function documentation").append("\n")
+                .append("Args: Auto-detected").append("\n")
+                .append("Returns: Auto-detected").append("\n")
+                .append("\"\"\"").append("\n"));
+    }
+    @Override
+    String reformatPatterns(String code) {
+        return rewrite(PRINT, code, "print(");}
+    @Override
+    String validateStructure(String code) {
+        Matcher matcher = DEF_HEADER.matcher(code);
+        while (matcher.find()) {
+            String defLine = matcher.group();
+            if (!defLine.endsWith(":")) {
+                AdvancedCodeProcessor.logError("Invalid Python structure: Function definition missing colon");
+            }
+        }
+        return code;}
+    @Override
+    String indentUnit() {
+        return "    ";}
+    @Override
+    boolean opensBlockWithColon() {
+        return true;}
+    @Override
+    String lineComment() {
+        return "#";}
+    @Override
+    boolean blockComments() {
+        return false;}
+    @Override
+    boolean tripleQuotes() {
+        return true;}
+    @Override
+    int nextBlockBoundary(CharSequence code, int from) {
+        int index = CharSequences.indexOf(code, '\n', from);
+        while (index > 0 && index + 1 < code.length()) {
+            int lineStart = index + 1;
+            char first = code.charAt(lineStart);
+            if (Character.isLetter(first) || first == '_' || first == '@') {
+                if (!CONTINUATION.matcher(code).region(lineStart, code.length()).lookingAt() && code.charAt(index - 1) != '\\' && !CharSequences.startsWith(code, "@", CharSequences.lastIndexOf(code, '\n', index - 1) + 1)) {
+                    return lineStart;}
+            }
+            index = CharSequences.indexOf(code, '\n', lineStart);}
+        return -1;}
+}
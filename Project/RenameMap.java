@@ -0,0 +1,196 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+final class RenameMap {
+    private static final long EMPTY = -1L;
+    private final String[] from;
+    private final String[] to;
+    private final boolean[] wordStart;
+    private final boolean[] wordEnd;
+    private final int maxLength;
+    private final boolean codeOnly;
+    private final String fingerprint;
+    private final int[] rootNext = new int[Character.MAX_VALUE + 1];
+    private long[] edgeKeys = new long[16];
+    private int[] edgeTargets = new int[16];
+    private int edges;
+    private int[] fail;
+    private int[] output;
+    private int[] dictionary;
+    private RenameMap(Map<String, String> renames, boolean codeOnly, String fingerprint) {
+        int size = renames.size();
+        this.from = renames.keySet().toArray(new String[0]);
+        this.to = renames.values().toArray(new String[0]);
+        this.wordStart = new boolean[size];
+        this.wordEnd = new boolean[size];
+        this.codeOnly = codeOnly;
+        this.fingerprint = fingerprint;
+        Arrays.fill(edgeKeys, EMPTY);
+        int longest = 0;
+        for (int t = 0; t < size; t++) {
+            wordStart[t] = IdentifierCounts.isWord(from[t].codePointAt(0));
+            wordEnd[t] = IdentifierCounts.isWord(from[t].codePointBefore(from[t].length()));
+            longest = Math.max(longest, from[t].length());}
+        this.maxLength = longest;
+        build();}
+    static RenameMap load(Path file, boolean codeOnly) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        Map<String, String> renames = new LinkedHashMap<>();
+        String[] lines = new String(bytes, StandardCharsets.UTF_8).split("\r?\n");
+        for (int n = 0; n < lines.length; n++) {
+            String line = lines[n].trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;}
+            int separator = line.indexOf('=');
+            String source = separator < 0 ? "" : line.substring(0, separator).trim();
+            if (source.isEmpty()) {
+                throw new IOException("Rename map " + file + " line " + (n + 1) + ": expected old=new");}
+            String target = line.substring(separator + 1).trim();
+            String previous = renames.put(source, target);
+            if (previous != null && !previous.equals(target)) {
+                throw new IOException("Rename map " + file + " line " + (n + 1) + ": " + source + " is already renamed to " + previous);}
+        }
+        return new RenameMap(renames, codeOnly, ResultCache.hash(bytes) + (codeOnly ? ":code" : ":all"));}
+    int size() {
+        return from.length;}
+    String fingerprint() {
+        return fingerprint;}
+    CharSequence apply(CharSequence code, LanguageProfile profile) {
+        if (from.length == 0) {
+            return code;}
+        int length = code.length();
+        CodeLexer lexer = codeOnly ? new CodeLexer(code, profile) : null;
+        StringBuilder out = null;
+        int last = 0;
+        int pendingStart = -1;
+        int pendingEnd = 0;
+        int pendingTerm = 0;
+        int state = 0;
+        for (int i = 0; i < length; i++) {
+            if (lexer != null && !lexer.step(i)) {
+                state = 0;
+            } else {
+                state = next(state, code.charAt(i));
+                for (int node = output[state] >= 0 ? state : dictionary[state]; node >= 0; node = dictionary[node]) {
+                    int term = output[node];
+                    int end = i + 1;
+                    int start = end - from[term].length();
+                    if (start < last || (wordStart[term] && EditPipeline.wordBefore(code, start)) || (wordEnd[term] && EditPipeline.wordAt(code, end))) {
+                        continue;}
+                    if (pendingStart >= 0 && start >= pendingEnd) {
+                        out = replace(code, out, last, pendingStart, pendingTerm);
+                        last = pendingEnd;
+                        pendingStart = -1;}
+                    if (pendingStart < 0 || start < pendingStart || (start == pendingStart && end > pendingEnd)) {
+                        pendingStart = start;
+                        pendingEnd = end;
+                        pendingTerm = term;}
+                }
+            }
+            if (pendingStart >= 0 && i + 2 - maxLength > pendingStart) {
+                out = replace(code, out, last, pendingStart, pendingTerm);
+                last = pendingEnd;
+                pendingStart = -1;}
+        }
+        if (pendingStart >= 0) {
+            out = replace(code, out, last, pendingStart, pendingTerm);
+            last = pendingEnd;}
+        return out == null ? code : out.append(code, last, length);}
+    private StringBuilder replace(CharSequence code, StringBuilder out, int last, int start, int term) {
+        if (out == null) {
+            out = new StringBuilder(code.length() + code.length() / 8);}
+        return out.append(code, last, start).append(to[term]);}
+    private int next(int state, char c) {
+        while (state != 0) {
+            int target = edge(state, c);
+            if (target >= 0) {
+                return target;}
+            state = fail[state];}
+        return rootNext[c];}
+    private void build() {
+        List<Integer> parents = new ArrayList<>();
+        List<Character> labels = new ArrayList<>();
+        List<Integer> terms = new ArrayList<>();
+        parents.add(-1);
+        labels.add('\0');
+        terms.add(-1);
+        for (int t = 0; t < from.length; t++) {
+            int node = 0;
+            for (int k = 0; k < from[t].length(); k++) {
+                char c = from[t].charAt(k);
+                int target = node == 0 ? (rootNext[c] > 0 ? rootNext[c] : -1) : edge(node, c);
+                if (target < 0) {
+                    target = parents.size();
+                    parents.add(node);
+                    labels.add(c);
+                    terms.add(-1);
+                    if (node == 0) {
+                        rootNext[c] = target;
+                    } else {
+                        putEdge(node, c, target);}
+                }
+                node = target;}
+            terms.set(node, t);}
+        int nodes = parents.size();
+        int[] depth = new int[nodes];
+        int[] order = new int[nodes];
+        int[] count = new int[maxLength + 2];
+        output = new int[nodes];
+        for (int v = 0; v < nodes; v++) {
+            depth[v] = v == 0 ? 0 : depth[parents.get(v)] + 1;
+            count[depth[v] + 1]++;
+            output[v] = terms.get(v);}
+        for (int d = 1; d < count.length; d++) {
+            count[d] += count[d - 1];}
+        for (int v = 0; v < nodes; v++) {
+            order[count[depth[v]]++] = v;}
+        fail = new int[nodes];
+        dictionary = new int[nodes];
+        dictionary[0] = -1;
+        for (int k = 1; k < nodes; k++) {
+            int v = order[k];
+            int parent = parents.get(v);
+            fail[v] = parent == 0 ? 0 : next(fail[parent], labels.get(v));
+            dictionary[v] = output[fail[v]] >= 0 ? fail[v] : dictionary[fail[v]];}
+    }
+    private int edge(int node, char c) {
+        long key = (long) node << 16 | c;
+        int mask = edgeKeys.length - 1;
+        for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+            if (edgeKeys[slot] == key) {
+                return edgeTargets[slot];}
+            if (edgeKeys[slot] == EMPTY) {
+                return -1;}
+        }
+    }
+    private void putEdge(int node, char c, int target) {
+        if ((edges + 1) * 2 > edgeKeys.length) {
+            long[] keys = edgeKeys;
+            int[] targets = edgeTargets;
+            edgeKeys = new long[keys.length * 2];
+            edgeTargets = new int[keys.length * 2];
+            Arrays.fill(edgeKeys, EMPTY);
+            edges = 0;
+            for (int s = 0; s < keys.length; s++) {
+                if (keys[s] != EMPTY) {
+                    insert(keys[s], targets[s]);}
+            }
+        }
+        insert((long) node << 16 | c, target);}
+    private void insert(long key, int target) {
+        int mask = edgeKeys.length - 1;
+        int slot = slot(key, mask);
+        while (edgeKeys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;}
+        edgeKeys[slot] = key;
+        edgeTargets[slot] = target;
+        edges++;}
+    private static int slot(long key, int mask) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;}
+}
@@ -0,0 +1,17 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+interface ReportSink extends Closeable {
+    void write(FileRecord record) throws IOException;
+    static ReportSink open(String format, Path directory, String baseName, long maxBytes, boolean append) throws IOException {
+        switch (format) {
+            case "none":
+                return null;
+            case "jsonl":
+                return new JsonLinesReportSink(directory, baseName, maxBytes, append);
+            case "binary":
+                return new BinaryReportSink(directory, baseName, maxBytes, append);
+            default:
+                throw new IllegalArgumentException("Unknown report sink: " + format + " (expected none, jsonl or binary)");}
+    }
+}
@@ -0,0 +1,149 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+final class ResultCache {
+    private static final int FORMAT_VERSION = 6;
+    private static final String ENTRY_SUFFIX = ".entry";
+    static final class Entry {
+        final boolean skipped;
+        final String extension;
+        final FileRecord record;
+        final String edited;
+        final List<NearDuplicateDetector.Sketch> sketches;
+        final EnumMap<SymbolIndex.Kind, List<String>> symbols;
+        Entry(boolean skipped, String extension, FileRecord record, String edited, List<NearDuplicateDetector.Sketch> sketches, EnumMap<SymbolIndex.Kind, List<String>> symbols) {
+            this.skipped = skipped;
+            this.extension = extension;
+            this.record = record;
+            this.edited = edited;
+            this.sketches = sketches;
+            this.symbols = symbols;}
+    }
+    private final Path directory;
+    private final int maxEntries;
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+    ResultCache(Path directory, int maxEntries) throws IOException {
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+        Files.createDirectories(directory);}
+    static String key(String path, String... options) {
+        StringBuilder key = new StringBuilder(path);
+        for (String option : options) {
+            key.append('\u0000').append(option);}
+        return hash(key.toString().getBytes(StandardCharsets.UTF_8));}
+    static String hash(byte[] content) {
+        return hash(ByteBuffer.wrap(content));}
+    static String hash(ByteBuffer content) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update(content);
+            byte[] digest = sha.digest();
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));}
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);}
+    }
+    Entry lookup(String key, String contentHash) {
+        Path file = directory.resolve(key + ENTRY_SUFFIX);
+        if (!Files.exists(file)) {
+            misses.incrementAndGet();
+            return null;}
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION || !readString(in).equals(contentHash)) {
+                misses.incrementAndGet();
+                return null;}
+            boolean skipped = in.readBoolean();
+            String extension = readString(in);
+            FileRecord record = in.readBoolean() ? FileRecord.readFrom(in) : null;
+            String edited = readString(in);
+            int sketchCount = in.readInt();
+            List<NearDuplicateDetector.Sketch> sketches = new ArrayList<>(sketchCount);
+            for (int i = 0; i < sketchCount; i++) {
+                sketches.add(NearDuplicateDetector.Sketch.readFrom(in));}
+            EnumMap<SymbolIndex.Kind, List<String>> symbols = in.readBoolean() ? SymbolIndex.FileSymbols.readSymbols(in) : null;
+            Entry entry = new Entry(skipped, extension, record, edited, sketches, symbols);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            hits.incrementAndGet();
+            return entry;
+        } catch (IOException e) {
+            AdvancedCodeProcessor.logError("Unreadable cache entry " + file + ": " + e.getMessage());
+            misses.incrementAndGet();
+            return null;}
+    }
+    void store(String key, String contentHash, Entry entry) {
+        Path file = directory.resolve(key + ENTRY_SUFFIX);
+        Path temp = directory.resolve(key + "." + Thread.currentThread().getId() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(FORMAT_VERSION);
+                writeString(out, contentHash);
+                out.writeBoolean(entry.skipped);
+                writeString(out, entry.extension);
+                out.writeBoolean(entry.record != null);
+                if (entry.record != null) {
+                    entry.record.writeTo(out);}
+                writeString(out, entry.edited);
+                out.writeInt(entry.sketches.size());
+                for (NearDuplicateDetector.Sketch sketch : entry.sketches) {
+                    sketch.writeTo(out);}
+                out.writeBoolean(entry.symbols != null);
+                if (entry.symbols != null) {
+                    SymbolIndex.FileSymbols.writeSymbols(out, entry.symbols);}
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            AdvancedCodeProcessor.logError("Failed to write cache entry " + file + ": " + e.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+    void evict() throws IOException {
+        List<Path> entries;
+        try (Stream<Path> files = Files.list(directory)) {
+            entries = files.filter(path -> path.getFileName().toString().endsWith(ENTRY_SUFFIX)).collect(Collectors.toCollection(ArrayList::new));}
+        if (entries.size() <= maxEntries) {
+            return;}
+        entries.sort(Comparator.comparing(ResultCache::lastModified));
+        for (Path stale : entries.subList(0, entries.size() - maxEntries)) {
+            Files.deleteIfExists(stale);}
+    }
+    int hits() {
+        return hits.get();}
+    int misses() {
+        return misses.get();}
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);}
+    }
+    private static String readString(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;}
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);}
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);}
+    }
+}
@@ -0,0 +1,67 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+abstract class RotatingReportSink implements ReportSink {
+    private final Path directory;
+    private final String baseName;
+    private final String suffix;
+    private final long maxBytes;
+    private final Pattern segmentName;
+    private OutputStream out;
+    private long written;
+    private int segment;
+    RotatingReportSink(Path directory, String baseName, String suffix, long maxBytes, boolean append) throws IOException {
+        this.directory = directory;
+        this.baseName = baseName;
+        this.suffix = suffix;
+        this.maxBytes = maxBytes;
+        this.segmentName = Pattern.compile(Pattern.quote(baseName) + "-(\\d+)" + Pattern.quote(suffix));
+        Files.createDirectories(directory);
+        List<Path> existing = segments();
+        if (append) {
+            for (Path path : existing) {
+                segment = Math.max(segment, segmentIndex(path));}
+        } else {
+            for (Path path : existing) {
+                Files.delete(path);}
+        }
+        open();}
+    abstract byte[] header();
+    abstract byte[] encode(FileRecord record) throws IOException;
+    @Override
+    public synchronized void write(FileRecord record) throws IOException {
+        byte[] bytes = encode(record);
+        if (written > header().length && written + bytes.length > maxBytes) {
+            out.close();
+            segment++;
+            open();}
+        out.write(bytes);
+        written += bytes.length;}
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();}
+    private void open() throws IOException {
+        Path path = directory.resolve(String.format("%s-%05d%s", baseName, segment, suffix));
+        written = Files.exists(path) ? Files.size(path) : 0;
+        out = new BufferedOutputStream(Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+        if (written == 0) {
+            byte[] header = header();
+            out.write(header);
+            written = header.length;}
+    }
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> segmentName.matcher(path.getFileName().toString()).matches()).collect(Collectors.toList());}
+    }
+    private int segmentIndex(Path path) {
+        Matcher matcher = segmentName.matcher(path.getFileName().toString());
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : 0;}
+}
@@ -0,0 +1,267 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+final class SearchQuery {
+    private static final String SIMPLE_ESCAPES = "dDsSwWbBAGZzRXhHvVtnrfae";
+    final String term;
+    private final Pattern pattern;
+    private final int[][] requiredTrigrams;
+    private SearchQuery(String term, Pattern pattern, int[][] requiredTrigrams) {
+        this.term = term;
+        this.pattern = pattern;
+        this.requiredTrigrams = requiredTrigrams;}
+    static SearchQuery of(String term) {
+        if (term.isEmpty()) {
+            return new SearchQuery(term, null, null);}
+        Pattern pattern;
+        List<List<String>> literals;
+        try {
+            pattern = Pattern.compile(term);
+            literals = requiredLiterals(term);
+        } catch (PatternSyntaxException e) {
+            pattern = null;
+            literals = List.of(List.of(term));}
+        return new SearchQuery(term, pattern, trigramsOf(literals));}
+    boolean isEmpty() {
+        return term.isEmpty();}
+    boolean matches(CharSequence code) {
+        if (term.isEmpty()) {
+            return true;}
+        return pattern == null ? CharSequences.contains(code, term) : pattern.matcher(code).find();}
+    boolean usesIndex() {
+        return requiredTrigrams != null;}
+    boolean mayMatch(int[] fileTrigrams) {
+        if (requiredTrigrams == null) {
+            return true;}
+        for (int[] alternative : requiredTrigrams) {
+            boolean all = true;
+            for (int trigram : alternative) {
+                if (Arrays.binarySearch(fileTrigrams, trigram) < 0) {
+                    all = false;
+                    break;}
+            }
+            if (all) {
+                return true;}
+        }
+        return false;}
+    private static int[][] trigramsOf(List<List<String>> alternatives) {
+        if (alternatives == null) {
+            return null;}
+        int[][] required = new int[alternatives.size()][];
+        for (int a = 0; a < alternatives.size(); a++) {
+            int[] trigrams = new int[0];
+            for (String literal : alternatives.get(a)) {
+                trigrams = TrigramIndex.union(trigrams, TrigramIndex.trigrams(literal));}
+            if (trigrams.length == 0) {
+                return null;}
+            required[a] = trigrams;}
+        return required;}
+    static List<List<String>> requiredLiterals(String regex) {
+        List<String> branches = splitTopLevel(regex);
+        if (branches == null) {
+            return null;}
+        List<List<String>> alternatives = new ArrayList<>();
+        for (String branch : branches) {
+            List<String> literals = sequenceLiterals(branch);
+            if (literals == null) {
+                return null;}
+            alternatives.add(literals);}
+        return alternatives;}
+    private static List<String> splitTopLevel(String regex) {
+        List<String> branches = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == 'Q') {
+                    int end = regex.indexOf("\\E", i + 2);
+                    i = end < 0 ? regex.length() : end + 1;
+                } else {
+                    i++;}
+            } else if (c == '[') {
+                i = classEnd(regex, i);
+                if (i < 0) {
+                    return null;}
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth == 0) {
+                branches.add(regex.substring(start, i));
+                start = i + 1;}
+        }
+        branches.add(regex.substring(start));
+        return branches;}
+    private static List<String> sequenceLiterals(String regex) {
+        List<String> literals = new ArrayList<>();
+        StringBuilder run = new StringBuilder();
+        boolean lastLiteral = false;
+        int i = 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 >= regex.length()) {
+                    return null;}
+                char next = regex.charAt(i + 1);
+                if (next == 'Q') {
+                    int end = regex.indexOf("\\E", i + 2);
+                    String quoted = regex.substring(i + 2, end < 0 ? regex.length() : end);
+                    run.append(quoted);
+                    lastLiteral = !quoted.isEmpty();
+                    i = end < 0 ? regex.length() : end + 2;
+                    continue;}
+                if (Character.isLetterOrDigit(next)) {
+                    if (SIMPLE_ESCAPES.indexOf(next) < 0) {
+                        return null;}
+                    flush(run, literals);
+                    lastLiteral = false;
+                } else {
+                    run.append(next);
+                    lastLiteral = true;}
+                i += 2;
+            } else if (c == '[') {
+                int end = classEnd(regex, i);
+                if (end < 0) {
+                    return null;}
+                flush(run, literals);
+                lastLiteral = false;
+                i = end + 1;
+            } else if (c == '(') {
+                int end = groupEnd(regex, i);
+                if (end < 0) {
+                    return null;}
+                flush(run, literals);
+                lastLiteral = false;
+                List<String> inner = groupLiterals(regex.substring(i + 1, end));
+                if (inner == null) {
+                    return null;}
+                i = end + 1;
+                int after = skipQuantifier(regex, i);
+                if (after < 0) {
+                    return null;}
+                if (after == i || !optionalQuantifier(regex, i)) {
+                    literals.addAll(inner);}
+                i = after;
+            } else if (c == '*' || c == '?' || c == '+' || c == '{') {
+                int after = skipQuantifier(regex, i);
+                if (after < 0 || after == i) {
+                    return null;}
+                if (lastLiteral && optionalQuantifier(regex, i)) {
+                    run.setLength(run.length() - 1);}
+                flush(run, literals);
+                lastLiteral = false;
+                i = after;
+            } else if (c == '.' || c == '^' || c == '$') {
+                flush(run, literals);
+                lastLiteral = false;
+                i++;
+            } else if (c == '|' || c == ')') {
+                return null;
+            } else {
+                run.append(c);
+                lastLiteral = true;
+                i++;}
+        }
+        flush(run, literals);
+        return literals;}
+    private static List<String> groupLiterals(String body) {
+        if (body.startsWith("?")) {
+            if (body.startsWith("?:") || body.startsWith("?>")) {
+                body = body.substring(2);
+            } else if (body.startsWith("?=") || body.startsWith("?!") || body.startsWith("?<=") || body.startsWith("?<!")) {
+                return new ArrayList<>();
+            } else if (body.startsWith("?<")) {
+                int close = body.indexOf('>');
+                if (close < 0) {
+                    return null;}
+                body = body.substring(close + 1);
+            } else {
+                return null;}
+        }
+        List<String> branches = splitTopLevel(body);
+        if (branches == null) {
+            return null;}
+        if (branches.size() > 1) {
+            for (String branch : branches) {
+                if (sequenceLiterals(branch) == null) {
+                    return null;}
+            }
+            return new ArrayList<>();}
+        return sequenceLiterals(body);}
+    private static boolean optionalQuantifier(String regex, int i) {
+        char c = regex.charAt(i);
+        if (c == '*' || c == '?') {
+            return true;}
+        if (c == '{') {
+            int j = i + 1;
+            while (j < regex.length() && regex.charAt(j) == '0') {
+                j++;}
+            return j > i + 1 && j < regex.length() && (regex.charAt(j) == ',' || regex.charAt(j) == '}');}
+        return false;}
+    private static int skipQuantifier(String regex, int i) {
+        if (i >= regex.length()) {
+            return i;}
+        char c = regex.charAt(i);
+        int next;
+        if (c == '*' || c == '?' || c == '+') {
+            next = i + 1;
+        } else if (c == '{') {
+            int close = regex.indexOf('}', i);
+            if (close < 0 || !regex.substring(i + 1, close).matches("\\d+(,\\d*)?")) {
+                return -1;}
+            next = close + 1;
+        } else {
+            return i;}
+        if (next < regex.length() && (regex.charAt(next) == '?' || regex.charAt(next) == '+')) {
+            next++;}
+        return next;}
+    private static int classEnd(String regex, int open) {
+        if (regex.indexOf("\\Q", open) >= 0) {
+            return -1;}
+        int j = open + 1;
+        if (j < regex.length() && regex.charAt(j) == '^') {
+            j++;}
+        if (j < regex.length() && regex.charAt(j) == ']') {
+            j++;}
+        int depth = 1;
+        for (; j < regex.length(); j++) {
+            char c = regex.charAt(j);
+            if (c == '\\') {
+                j++;
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']' && --depth == 0) {
+                return j;}
+        }
+        return -1;}
+    private static int groupEnd(String regex, int open) {
+        int depth = 0;
+        for (int j = open; j < regex.length(); j++) {
+            char c = regex.charAt(j);
+            if (c == '\\') {
+                if (j + 1 < regex.length() && regex.charAt(j + 1) == 'Q') {
+                    int end = regex.indexOf("\\E", j + 2);
+                    if (end < 0) {
+                        return -1;}
+                    j = end + 1;
+                } else {
+                    j++;}
+            } else if (c == '[') {
+                j = classEnd(regex, j);
+                if (j < 0) {
+                    return -1;}
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return j;}
+        }
+        return -1;}
+    private static void flush(StringBuilder run, List<String> literals) {
+        if (run.length() > 0) {
+            literals.add(run.toString());
+            run.setLength(0);}
+    }
+}
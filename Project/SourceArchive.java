@@ -0,0 +1,36 @@
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+final class SourceArchive {
+    private static final String[] ZIP_SUFFIXES = {".zip", ".jar"};
+    private static final String[] TAR_SUFFIXES = {".tar", ".tar.gz", ".tgz"};
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private SourceArchive() {
+    }
+    static boolean isArchive(Path path) {
+        return isZip(path) || isTar(path);}
+    static boolean isZip(Path path) {
+        return hasSuffix(path, ZIP_SUFFIXES);}
+    static boolean isTar(Path path) {
+        return hasSuffix(path, TAR_SUFFIXES);}
+    static FileSystem openZip(Path archive) throws IOException {
+        return FileSystems.newFileSystem(archive, (ClassLoader) null);}
+    static TarReader openTar(Path archive) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(archive), BUFFER_SIZE);
+        String name = archive.getFileName().toString().toLowerCase(Locale.ROOT);
+        return new TarReader(name.endsWith(".tar") ? in : new GZIPInputStream(in, BUFFER_SIZE));}
+    private static boolean hasSuffix(Path path, String[] suffixes) {
+        Path fileName = path.getFileName();
+        String name = fileName == null ? "" : fileName.toString().toLowerCase(Locale.ROOT);
+        for (String suffix : suffixes) {
+            if (name.endsWith(suffix)) {
+                return true;}
+        }
+        return false;}
+}
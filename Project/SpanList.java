@@ -0,0 +1,62 @@
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+final class SpanList {
+    private final CharSequence source;
+    private int[] bounds = new int[16];
+    private int size;
+    SpanList(CharSequence source) {
+        this.source = source;}
+    void add(int start, int end) {
+        if (size * 2 == bounds.length) {
+            bounds = Arrays.copyOf(bounds, bounds.length * 2);}
+        bounds[size * 2] = start;
+        bounds[size * 2 + 1] = end;
+        size++;}
+    void addAll(SpanList other, int offset) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.start(i) + offset, other.end(i) + offset);}
+    }
+    SpanList copy() {
+        SpanList copy = new SpanList(source);
+        copy.bounds = bounds.clone();
+        copy.size = size;
+        return copy;}
+    long footprint() {
+        return 32 + 4L * bounds.length;}
+    int size() {
+        return size;}
+    boolean isEmpty() {
+        return size == 0;}
+    int start(int i) {
+        return bounds[i * 2];}
+    int end(int i) {
+        return bounds[i * 2 + 1];}
+    String get(int i) {
+        return CharSequences.substring(source, start(i), end(i));}
+    boolean contains(int i, String term) {
+        return CharSequences.indexOf(source, term, start(i), end(i)) >= 0;}
+    void appendTo(StringBuilder out, int i) {
+        out.append(source, start(i), end(i));}
+    void clear() {
+        size = 0;}
+    void retain(IntPredicate keep) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (keep.test(i)) {
+                bounds[kept * 2] = bounds[i * 2];
+                bounds[kept * 2 + 1] = bounds[i * 2 + 1];
+                kept++;}
+        }
+        size = kept;}
+    int[] byLengthDescending() {
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = (long) (Integer.MAX_VALUE - (end(i) - start(i))) << 32 | i;}
+        return order(keys);}
+    static int[] order(long[] keys) {
+        Arrays.sort(keys);
+        int[] order = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            order[i] = (int) keys[i];}
+        return order;}
+}
@@ -0,0 +1,164 @@
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+final class SymbolIndex {
+    private static final int FORMAT_VERSION = 3;
+    private static final Map<Path, SymbolIndex> OPEN = new ConcurrentHashMap<>();
+    enum Kind {
+        METHOD_NAME("method_name"), RETURN_TYPE("return_type"), PARAMETER_TYPE("parameter_type"), VARIABLE_TYPE("variable_type");
+        final String filterType;
+        Kind(String filterType) {
+            this.filterType = filterType;}
+        static Kind forFilter(String filterType) {
+            for (Kind kind : values()) {
+                if (kind.filterType.equals(filterType)) {
+                    return kind;}
+            }
+            return null;}
+        boolean matches(String symbol, String value) {
+            return this == PARAMETER_TYPE ? symbol.contains(value) : symbol.equals(value);}
+        boolean matches(FileRecord record) {
+            return this == VARIABLE_TYPE ? record.variables > 0 : !record.methods.isEmpty();}
+    }
+    static final class FileSymbols {
+        final long size;
+        final long modified;
+        final EnumMap<Kind, List<String>> symbols;
+        FileSymbols(long size, long modified, EnumMap<Kind, List<String>> symbols) {
+            this.size = size;
+            this.modified = modified;
+            this.symbols = symbols;}
+        static EnumMap<Kind, List<String>> empty() {
+            EnumMap<Kind, List<String>> symbols = new EnumMap<>(Kind.class);
+            for (Kind kind : Kind.values()) {
+                symbols.put(kind, new ArrayList<>());}
+            return symbols;}
+        static void writeSymbols(DataOutput out, EnumMap<Kind, List<String>> symbols) throws IOException {
+            for (Kind kind : Kind.values()) {
+                List<String> values = symbols.get(kind);
+                out.writeInt(values.size());
+                for (String symbol : values) {
+                    FileRecord.writeString(out, symbol);}
+            }
+        }
+        static EnumMap<Kind, List<String>> readSymbols(DataInput in) throws IOException {
+            EnumMap<Kind, List<String>> symbols = empty();
+            for (Kind kind : Kind.values()) {
+                int symbolCount = in.readInt();
+                for (int s = 0; s < symbolCount; s++) {
+                    symbols.get(kind).add(FileRecord.readString(in));}
+            }
+            return symbols;}
+    }
+    private final Path file;
+    private final Map<String, FileSymbols> files = new ConcurrentHashMap<>();
+    private final EnumMap<Kind, Map<String, Set<String>>> postings = new EnumMap<>(Kind.class);
+    private volatile boolean dirty;
+    private SymbolIndex(Path file) {
+        this.file = file;
+        for (Kind kind : Kind.values()) {
+            postings.put(kind, new ConcurrentHashMap<>());}
+    }
+    static SymbolIndex open(Path file) {
+        return OPEN.computeIfAbsent(file.toAbsolutePath().normalize(), SymbolIndex::load);}
+    private static SymbolIndex load(Path file) {
+        SymbolIndex index = new SymbolIndex(file);
+        if (!Files.exists(file)) {
+            return index;}
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return index;}
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String path = FileRecord.readString(in);
+                long size = in.readLong();
+                long modified = in.readLong();
+                index.put(path, new FileSymbols(size, modified, FileSymbols.readSymbols(in)));}
+        } catch (IOException e) {
+            AdvancedCodeProcessor.logError("Unreadable symbol index " + file + ": " + e.getMessage());
+            index.files.clear();
+            index.postings.values().forEach(Map::clear);}
+        return index;}
+    synchronized void save() throws IOException {
+        if (!dirty) {
+            return;}
+        dirty = false;
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(FORMAT_VERSION);
+            List<Map.Entry<String, FileSymbols>> entries = new ArrayList<>(files.entrySet());
+            out.writeInt(entries.size());
+            for (Map.Entry<String, FileSymbols> entry : entries) {
+                FileRecord.writeString(out, entry.getKey());
+                out.writeLong(entry.getValue().size);
+                out.writeLong(entry.getValue().modified);
+                FileSymbols.writeSymbols(out, entry.getValue().symbols);}
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);}
+    boolean isCandidate(Path path, Set<String> matching) throws IOException {
+        String key = key(path);
+        if (matching.contains(key)) {
+            return true;}
+        FileSymbols entry = files.get(key);
+        if (entry == null) {
+            return true;}
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return entry.size != attributes.size() || entry.modified != attributes.lastModifiedTime().toMillis();}
+    Set<String> matchingFiles(Kind kind, String value) {
+        Map<String, Set<String>> bySymbol = postings.get(kind);
+        if (kind != Kind.PARAMETER_TYPE) {
+            return bySymbol.getOrDefault(value, Set.of());}
+        Set<String> matching = new HashSet<>();
+        for (Map.Entry<String, Set<String>> entry : bySymbol.entrySet()) {
+            if (kind.matches(entry.getKey(), value)) {
+                matching.addAll(entry.getValue());}
+        }
+        return matching;}
+    boolean isFresh(Path path, BasicFileAttributes attributes) {
+        FileSymbols entry = files.get(key(path));
+        return entry != null && entry.size == attributes.size() && entry.modified == attributes.lastModifiedTime().toMillis();}
+    void update(Path path, BasicFileAttributes attributes, EnumMap<Kind, List<String>> symbols) {
+        String key = key(path);
+        FileSymbols previous = files.remove(key);
+        if (previous != null) {
+            unpost(key, previous);}
+        put(key, new FileSymbols(attributes.size(), attributes.lastModifiedTime().toMillis(), symbols));
+        dirty = true;}
+    void retain(Path root, Collection<Path> live) {
+        Path base = Paths.get(key(root));
+        Set<String> keys = new HashSet<>();
+        for (Path path : live) {
+            keys.add(key(path));}
+        for (Map.Entry<String, FileSymbols> entry : files.entrySet()) {
+            if (!keys.contains(entry.getKey()) && Paths.get(entry.getKey()).startsWith(base) && files.remove(entry.getKey(), entry.getValue())) {
+                unpost(entry.getKey(), entry.getValue());
+                dirty = true;}
+        }
+    }
+    private void put(String key, FileSymbols entry) {
+        files.put(key, entry);
+        for (Kind kind : Kind.values()) {
+            for (String symbol : entry.symbols.get(kind)) {
+                postings.get(kind).computeIfAbsent(symbol, s -> ConcurrentHashMap.newKeySet()).add(key);}
+        }
+    }
+    private void unpost(String key, FileSymbols entry) {
+        for (Kind kind : Kind.values()) {
+            for (String symbol : entry.symbols.get(kind)) {
+                postings.get(kind).computeIfPresent(symbol, (s, paths) -> {
+                    paths.remove(key);
+                    return paths.isEmpty() ? null : paths;});
+            }
+        }
+    }
+    private static String key(Path path) {
+        return path.toAbsolutePath().normalize().toString();}
+}
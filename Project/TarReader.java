@@ -0,0 +1,117 @@
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+final class TarReader implements Closeable {
+    private static final int BLOCK = 512;
+    static final class Entry {
+        final String name;
+        final long size;
+        final boolean regular;
+        Entry(String name, long size, boolean regular) {
+            this.name = name;
+            this.size = size;
+            this.regular = regular;}
+    }
+    private final InputStream in;
+    private final byte[] header = new byte[BLOCK];
+    private long remaining;
+    TarReader(InputStream in) {
+        this.in = in;}
+    Entry next() throws IOException {
+        String longName = null;
+        while (true) {
+            skip(remaining);
+            remaining = 0;
+            if (!readHeader()) {
+                return null;}
+            long size = size();
+            char type = (char) header[156];
+            String name = longName != null ? longName : name();
+            longName = null;
+            remaining = padded(size);
+            if (type == 'L') {
+                longName = trimNul(new String(readData(size), StandardCharsets.UTF_8));
+            } else if (type == 'x') {
+                longName = paxPath(readData(size));
+            } else if (type == 'g') {
+                continue;
+            } else {
+                return new Entry(relative(name), size, type == '0' || type == '\0' || type == '7');}
+        }
+    }
+    byte[] read(Entry entry) throws IOException {
+        return readData(entry.size);}
+    private byte[] readData(long size) throws IOException {
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IOException("Archive entry too large to process: " + size + " bytes");}
+        byte[] data = in.readNBytes((int) size);
+        if (data.length != size) {
+            throw new EOFException("Truncated archive entry");}
+        remaining -= size;
+        return data;}
+    private boolean readHeader() throws IOException {
+        int read = in.readNBytes(header, 0, BLOCK);
+        if (read == 0) {
+            return false;}
+        if (read != BLOCK) {
+            throw new EOFException("Truncated archive header");}
+        for (byte b : header) {
+            if (b != 0) {
+                return true;}
+        }
+        return false;}
+    private String name() {
+        String name = field(0, 100);
+        if (field(257, 5).equals("ustar")) {
+            String prefix = field(345, 155);
+            if (!prefix.isEmpty()) {
+                name = prefix + "/" + name;}
+        }
+        return name;}
+    private long size() throws IOException {
+        if ((header[124] & 0x80) != 0) {
+            long size = 0;
+            for (int i = 125; i < 136; i++) {
+                size = size << 8 | (header[i] & 0xFF);}
+            return size;}
+        String octal = field(124, 12).trim();
+        try {
+            return octal.isEmpty() ? 0 : Long.parseLong(octal, 8);
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed archive entry size: " + octal);}
+    }
+    private String field(int offset, int length) {
+        int end = offset;
+        while (end < offset + length && header[end] != 0) {
+            end++;}
+        return new String(header, offset, end - offset, StandardCharsets.UTF_8);}
+    private void skip(long bytes) throws IOException {
+        in.skipNBytes(bytes);}
+    private static long padded(long size) {
+        return (size + BLOCK - 1) / BLOCK * BLOCK;}
+    private static String relative(String name) {
+        while (name.startsWith("./") || name.startsWith("/")) {
+            name = name.substring(name.charAt(0) == '/' ? 1 : 2);}
+        return name;}
+    private static String trimNul(String value) {
+        int nul = value.indexOf('\0');
+        return nul < 0 ? value : value.substring(0, nul);}
+    private static String paxPath(byte[] records) {
+        String text = new String(records, StandardCharsets.UTF_8);
+        int position = 0;
+        while (position < text.length()) {
+            int space = text.indexOf(' ', position);
+            int newline = text.indexOf('\n', space + 1);
+            if (space < 0 || newline < 0) {
+                break;}
+            String record = text.substring(space + 1, newline);
+            if (record.startsWith("path=")) {
+                return record.substring("path=".length());}
+            position = newline + 1;}
+        return null;}
+    @Override
+    public void close() throws IOException {
+        in.close();}
+}
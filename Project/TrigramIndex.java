@@ -0,0 +1,117 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+final class TrigramIndex {
+    private static final int MAX_ROOTS = Math.max(1, Integer.getInteger("processor.searchIndexRoots", 8));
+    private static final int EMPTY = -1;
+    private static final Map<Path, TrigramIndex> INDEXES = new LinkedHashMap<>(16, 0.75f, true);
+    private static boolean session;
+    private static final class Entry {
+        final long size;
+        final long modified;
+        final int[] trigrams;
+        Entry(long size, long modified, int[] trigrams) {
+            this.size = size;
+            this.modified = modified;
+            this.trigrams = trigrams;}
+    }
+    private final Map<Path, Entry> entries = new ConcurrentHashMap<>();
+    static synchronized void startSession() {
+        session = true;}
+    static synchronized TrigramIndex forRoot(Path root) {
+        if (!session) {
+            return null;}
+        TrigramIndex index = INDEXES.computeIfAbsent(key(root), path -> new TrigramIndex());
+        Iterator<TrigramIndex> eldest = INDEXES.values().iterator();
+        while (INDEXES.size() > MAX_ROOTS) {
+            eldest.next();
+            eldest.remove();}
+        return index;}
+    boolean isCandidate(Path file, SearchQuery query) throws IOException {
+        if (!query.usesIndex()) {
+            return true;}
+        Entry entry = entries.get(key(file));
+        if (entry == null) {
+            return true;}
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        if (attributes.size() != entry.size || attributes.lastModifiedTime().toMillis() != entry.modified) {
+            return true;}
+        return query.mayMatch(entry.trigrams);}
+    boolean isFresh(Path file, BasicFileAttributes attributes) {
+        Entry entry = entries.get(key(file));
+        return entry != null && entry.size == attributes.size() && entry.modified == attributes.lastModifiedTime().toMillis();}
+    void update(Path file, BasicFileAttributes attributes, CharSequence text) {
+        entries.put(key(file), new Entry(attributes.size(), attributes.lastModifiedTime().toMillis(), trigrams(text)));}
+    void retain(Collection<Path> files) {
+        Set<Path> live = new HashSet<>();
+        for (Path file : files) {
+            live.add(key(file));}
+        entries.keySet().removeIf(path -> !live.contains(path));}
+    int size() {
+        return entries.size();}
+    private static Path key(Path file) {
+        return file.toAbsolutePath().normalize();}
+    static int[] trigrams(CharSequence text) {
+        int length = text.length();
+        if (length < 3) {
+            return new int[0];}
+        int[] table = new int[64];
+        Arrays.fill(table, EMPTY);
+        int distinct = 0;
+        int code = (text.charAt(0) & 0x3FF) << 10 | (text.charAt(1) & 0x3FF);
+        for (int i = 2; i < length; i++) {
+            code = (code << 10 | (text.charAt(i) & 0x3FF)) & 0x3FFFFFFF;
+            if (insert(table, code) && ++distinct * 2 > table.length) {
+                table = rehash(table);}
+        }
+        int[] codes = new int[distinct];
+        int count = 0;
+        for (int slot : table) {
+            if (slot != EMPTY) {
+                codes[count++] = slot;}
+        }
+        Arrays.sort(codes);
+        return codes;}
+    private static boolean insert(int[] table, int code) {
+        int mask = table.length - 1;
+        int slot = (code * 0x9E3779B9 >>> 16 ^ code) & mask;
+        while (table[slot] != EMPTY) {
+            if (table[slot] == code) {
+                return false;}
+            slot = (slot + 1) & mask;}
+        table[slot] = code;
+        return true;}
+    private static int[] rehash(int[] table) {
+        int[] grown = new int[table.length * 2];
+        Arrays.fill(grown, EMPTY);
+        for (int code : table) {
+            if (code != EMPTY) {
+                insert(grown, code);}
+        }
+        return grown;}
+    static int[] union(int[] first, int[] second) {
+        int[] merged = new int[first.length + second.length];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < first.length || j < second.length) {
+            int next;
+            if (j >= second.length || (i < first.length && first[i] < second[j])) {
+                next = first[i++];
+            } else if (i >= first.length || second[j] < first[i]) {
+                next = second[j++];
+            } else {
+                next = first[i++];
+                j++;}
+            merged[count++] = next;}
+        return Arrays.copyOf(merged, count);}
+}
@@ -0,0 +1,18 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.List;
+public class Headers {
+    private int count = 0;
+    static int total(List<Integer> values) {
+        int sum = 0;
+        for (int i = 0; i < values.size(); i++) {
+            sum += values.get(i);}
+        for (Integer value : values) {
+            sum -= value;}
+        return sum;}
+    static String firstLine(String path) throws IOException {
+        try (FileReader in = new FileReader(path); BufferedReader r = new BufferedReader(in)) {
+            return r.readLine();}
+    }
+}
@@ -0,0 +1,11 @@
+#include <vector>
+int total(const std::vector<int>& values) {
+    int sum = 0;
+    for (int i = 0; i < (int) values.size(); i++) {
+        sum += values[i];
+    }
+    for (const int& value : values) {
+        sum -= value;
+    }
+    return sum;
+}
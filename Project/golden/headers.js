@@ -0,0 +1,11 @@
+const fs = require('fs');
+function total(values) {
+    let sum = 0;
+    for (let i = 0; i < values.length; i++) {
+        sum += values[i];
+    }
+    for (const value of values) {
+        sum -= value;
+    }
+    return sum;
+}
@@ -0,0 +1,32 @@
+package codeprocessor.jmh;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CleanupBenchmark {
+    @Param({".java", ".py", ".cpp", ".js"})
+    String extension;
+    @Param({"2000"})
+    int lines;
+    String code;
+    Object structure;
+    @Setup
+    public void generate() throws Throwable {
+        code = CorpusGenerator.source(extension, lines, 42);
+        structure = Processor.extractStructure(code, extension);}
+    @Benchmark
+    public String removeDuplicateLines() throws Throwable {
+        return Processor.removeDuplicateLines(code);}
+    @Benchmark
+    public Object removeDuplicateMethods() throws Throwable {
+        return Processor.removeDuplicateMethods(structure);}
+    @Benchmark
+    public Object analyzeVariableUsage() throws Throwable {
+        Processor.analyzeVariableUsage(structure);
+        return structure;}
+}
@@ -0,0 +1,169 @@
+package codeprocessor.jmh;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+public final class CorpusGenerator {
+    static final String[] EXTENSIONS = {".java", ".py", ".cpp", ".js"};
+    private static final int FILES_PER_DIRECTORY = 50;
+    private final Random random;
+    private final StringBuilder out = new StringBuilder();
+    private int lines;
+    private int unit;
+    private CorpusGenerator(long seed) {
+        this.random = new Random(seed);}
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: CorpusGenerator <output-dir> [files=100] [lines-per-file=500] [seed=42]");
+            return;}
+        Path dir = Paths.get(args[0]);
+        int files = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int lines = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+        List<Path> written = generate(dir, files, lines, seed);
+        long bytes = 0;
+        for (Path file : written) {
+            bytes += Files.size(file);}
+        System.out.println("Generated " + written.size() + " files (" + bytes + " bytes) in " + dir);}
+    public static List<Path> generate(Path dir, int files, int linesPerFile, long seed) throws IOException {
+        List<Path> written = new ArrayList<>();
+        for (int i = 0; i < files; i++) {
+            String extension = EXTENSIONS[i % EXTENSIONS.length];
+            Path file = dir.resolve("module" + (i / FILES_PER_DIRECTORY)).resolve("Generated" + i + extension);
+            Files.createDirectories(file.getParent());
+            Files.write(file, source(extension, linesPerFile, seed * 31 + i).getBytes(StandardCharsets.UTF_8));
+            written.add(file);}
+        return written;}
+    public static String source(String extension, int lines, long seed) {
+        CorpusGenerator generator = new CorpusGenerator(seed);
+        switch (extension) {
+            case ".java":
+                return generator.java(lines);
+            case ".py":
+                return generator.python(lines);
+            case ".cpp":
+                return generator.cpp(lines);
+            case ".js":
+                return generator.js(lines);
+            default:
+                throw new IllegalArgumentException("Unsupported extension: " + extension);}
+    }
+    private String java(int target) {
+        line("import java.util.List;");
+        line("import java.util.Map;");
+        line("import java.util.ArrayList;");
+        line("");
+        while (lines < target) {
+            int id = unit++;
+            line("public class Generated" + id + " {");
+            for (int f = 0; f < 3; f++) {
+                line("    private int field" + f + " = " + random.nextInt(100) + ";");}
+            line("    private String name = \"class {" + id + "}\";");
+            for (int m = 0; m < 4 && lines < target; m++) {
+                int method = duplicateOr(m);
+                line("");
+                line("    /** Computes value " + method + ". */");
+                line("    public int method" + method + "(int a, String b) {");
+                line("        int total = a;");
+                cStyleBody("        ", "int", "field" + random.nextInt(3));
+                line("        return total;");
+                line("    }");}
+            line("}");
+            line("");}
+        return out.toString();}
+    private String python(int target) {
+        line("import os");
+        line("import sys");
+        line("");
+        while (lines < target) {
+            int id = unit++;
+            line("counter" + id + " = " + random.nextInt(100));
+            line("");
+            line("class Generated" + id + ":");
+            for (int m = 0; m < 4 && lines < target; m++) {
+                int method = duplicateOr(m);
+                line("    def method" + method + "(self, a, b):");
+                line("        total = a");
+                line("        for i in range(b):");
+                line("            if i % " + (2 + random.nextInt(5)) + " == 0:");
+                line("                total += i  # even {brace} in comment");
+                line("            else:");
+                line("                total -= 1");
+                line("        return total");
+                line("");}
+            line("def function" + id + "(a, b):");
+            line("    label = \"value: " + id + "\"");
+            line("    return a + b");
+            line("");}
+        return out.toString();}
+    private String cpp(int target) {
+        line("#include <vector>");
+        line("#include <string>");
+        line("");
+        while (lines < target) {
+            int id = unit++;
+            line("int global" + id + " = " + random.nextInt(100) + ";");
+            line("class Generated" + id + " {");
+            line("public:");
+            for (int m = 0; m < 3 && lines < target; m++) {
+                int method = duplicateOr(m);
+                line("    int method" + method + "(int a, int b) {");
+                line("        int total = a;");
+                cStyleBody("        ", "int", "b");
+                line("        return total;");
+                line("    }");}
+            line("};");
+            line("int function" + id + "(int a, int b) {");
+            line("    const char* text = \"}\";");
+            line("    return a * b;");
+            line("}");
+            line("");}
+        return out.toString();}
+    private String js(int target) {
+        line("import { helper } from './helper.js';");
+        line("");
+        while (lines < target) {
+            int id = unit++;
+            line("const value" + id + " = " + random.nextInt(100) + ";");
+            line("class Generated" + id + " {");
+            for (int m = 0; m < 3 && lines < target; m++) {
+                int method = duplicateOr(m);
+                line("    method" + method + "(a, b) {");
+                line("        let total = a;");
+                cStyleBody("        ", "let", "b");
+                line("        return total;");
+                line("    }");}
+            line("}");
+            line("function function" + id + "(a, b) {");
+            line("    let label = `value ${a} }`;");
+            line("    return helper(a, b);");
+            line("}");
+            line("const arrow" + id + " = (a, b) => {");
+            line("    return a - b;");
+            line("};");
+            line("");}
+        return out.toString();}
+    private void cStyleBody(String indent, String counterType, String bound) {
+        int loops = 1 + random.nextInt(3);
+        for (int l = 0; l < loops; l++) {
+            line(indent + "for (" + counterType + " i = 0; i < " + bound + "; i++) {");
+            line(indent + "    if (i % " + (2 + random.nextInt(5)) + " == 0) {");
+            line(indent + "        total += i;");
+            line(indent + "    } else {");
+            line(indent + "        total -= 1;");
+            line(indent + "    }");
+            line(indent + "}");}
+        if (random.nextInt(4) == 0) {
+            line(indent + "// TODO: revisit {" + random.nextInt(1000) + "}");}
+    }
+    private int duplicateOr(int method) {
+        return unit > 1 && random.nextInt(10) == 0 ? random.nextInt(Math.max(1, method + 1)) : unit * 10 + method;}
+    private void line(String text) {
+        out.append(text).append('\n');
+        lines++;}
+}
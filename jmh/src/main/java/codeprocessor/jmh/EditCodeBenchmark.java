@@ -0,0 +1,28 @@
+package codeprocessor.jmh;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EditCodeBenchmark {
+    @Param({".java", ".py", ".cpp", ".js"})
+    String extension;
+    @Param({"2000"})
+    int lines;
+    @Param({"uppercase", "none"})
+    String transformCase;
+    String code;
+    @Setup
+    public void generate() {
+        code = CorpusGenerator.source(extension, lines, 42);}
+    @Benchmark
+    public String editCode() throws Throwable {
+        return Processor.editCode(code, extension, "", "", true, transformCase);}
+    @Benchmark
+    public String editCodeWithReplace() throws Throwable {
+        return Processor.editCode(code, extension, "total", "sum", true, transformCase);}
+}
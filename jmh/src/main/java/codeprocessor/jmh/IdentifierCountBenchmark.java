@@ -0,0 +1,55 @@
+package codeprocessor.jmh;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.*;
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdentifierCountBenchmark {
+    @Param({"10", "100", "500", "2000"})
+    int variables;
+    String[] names;
+    String code;
+    @Setup
+    public void generate() throws Throwable {
+        names = new String[variables];
+        code = source(variables, names);
+        long regex = regexPass();
+        long table = tablePass();
+        if (regex != table) {
+            throw new IllegalStateException("Counts differ: regex " + regex + ", table " + table);}
+    }
+    @Benchmark
+    public long regexPass() {
+        long total = 0;
+        for (String name : names) {
+            Matcher matcher = Pattern.compile("\\b" + Pattern.quote(name) + "\\b").matcher(code);
+            while (matcher.find()) {
+                total++;}
+        }
+        return total;}
+    @Benchmark
+    public long tablePass() throws Throwable {
+        Object counts = Processor.countIdentifiers(code);
+        long total = 0;
+        for (String name : names) {
+            total += Processor.identifierCount(counts, name);}
+        return total;}
+    private static String source(int variables, String[] names) {
+        Random random = new Random(42);
+        StringBuilder out = new StringBuilder("public class Fields {\n");
+        for (int v = 0; v < variables; v++) {
+            names[v] = "field" + v;
+            out.append("    private int ").append(names[v]).append(" = ").append(random.nextInt(100)).append(";\n");}
+        out.append("    int sum() {\n        int total = 0;\n");
+        for (int v = 0; v < variables * 4; v++) {
+            out.append("        total += ").append(names[random.nextInt(variables)]).append(" * ").append(names[random.nextInt(variables)]).append(";\n");}
+        out.append("        return total;\n    }\n}\n");
+        return out.toString();}
+}
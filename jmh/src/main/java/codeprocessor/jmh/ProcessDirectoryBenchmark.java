@@ -0,0 +1,49 @@
+package codeprocessor.jmh;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.*;
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProcessDirectoryBenchmark {
+    private static final Path REPORT = Paths.get("processed_code", "processing_report.txt");
+    @Param({"200"})
+    int files;
+    @Param({"300"})
+    int lines;
+    Path corpus;
+    PrintStream console;
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        corpus = Files.createTempDirectory("processor-corpus");
+        CorpusGenerator.generate(corpus, files, lines, 42);
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));}
+    @TearDown(Level.Iteration)
+    public void truncateReport() throws IOException {
+        Files.deleteIfExists(REPORT);}
+    @TearDown(Level.Trial)
+    public void cleanUp() throws IOException {
+        System.setOut(console);
+        try (Stream<Path> walk = Files.walk(corpus)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());}
+    }
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dprocessor.cache=false")
+    public void processDirectory() throws Throwable {
+        Processor.processDirectory(corpus.toString(), "", "", "", true, "", "", true, "uppercase");}
+    @Benchmark
+    public void processDirectoryCached() throws Throwable {
+        Processor.processDirectory(corpus.toString(), "", "", "", true, "", "", true, "uppercase");}
+}
@@ -0,0 +1,139 @@
+package codeprocessor.jmh;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+final class Processor {
+    private static final Class<?> TOOL = load("AdvancedCodeProcessor");
+    private static final Class<?> STRUCTURE = load("AdvancedCodeProcessor$CodeStructure");
+    private static final Class<?> METHODS = load("MethodTable");
+    private static final Class<?> SPANS = load("SpanList");
+    private static final Class<?> RENAMES = load("RenameMap");
+    private static final Class<?> IDENTIFIER_COUNTS = load("IdentifierCounts");
+    private static final Class<?> PROFILE = load("LanguageProfile");
+    private static final Class<?> PROFILES = load("LanguageProfiles");
+    private static final Class<?> JOB = load("JobSpec");
+    private static final MethodHandle EXTRACT_STRUCTURE = handle("extractStructure", STRUCTURE, String.class, String.class);
+    private static final MethodHandle STRUCTURE_IMPORTS = getter(STRUCTURE, "imports", SPANS);
+    private static final MethodHandle STRUCTURE_CLASSES = getter(STRUCTURE, "classes", SPANS);
+    private static final MethodHandle STRUCTURE_VARIABLES = getter(STRUCTURE, "variables", SPANS);
+    private static final MethodHandle STRUCTURE_METHODS = getter(STRUCTURE, "methods", METHODS);
+    private static final MethodHandle SPAN_COUNT = virtual(SPANS, "size", int.class);
+    private static final MethodHandle SPAN_TEXT = virtual(SPANS, "get", String.class, int.class);
+    private static final MethodHandle METHOD_COUNT = virtual(METHODS, "size", int.class);
+    private static final MethodHandle METHOD_TEXT = virtual(METHODS, "text", String.class, int.class);
+    private static final MethodHandle METHOD_SIGNATURE = virtual(METHODS, "signature", String.class, int.class);
+    private static final MethodHandle METHOD_LINES = virtual(METHODS, "lines", int.class, int.class);
+    private static final MethodHandle METHOD_PARAMETERS = virtual(METHODS, "parameters", String.class, int.class);
+    private static final MethodHandle METHOD_RETURN_TYPE = virtual(METHODS, "returnType", String.class, int.class);
+    private static final MethodHandle SCAN_STRUCTURE = handle("scanStructure", STRUCTURE, CharSequence.class, String.class);
+    private static final MethodHandle REMOVE_DUPLICATE_LINES = handle("removeDuplicateLines", String.class, CharSequence.class);
+    private static final MethodHandle REMOVE_DUPLICATE_METHODS = handle("removeDuplicateMethods", METHODS, STRUCTURE);
+    private static final MethodHandle ANALYZE_VARIABLE_USAGE = handle("analyzeVariableUsage", void.class, STRUCTURE);
+    private static final MethodHandle EDIT_CODE = handle("editCode", String.class, String.class, String.class, RENAMES, String.class, String.class, boolean.class, String.class);
+    private static final MethodHandle COUNT_IDENTIFIERS = handle(IDENTIFIER_COUNTS, "of", IDENTIFIER_COUNTS, CharSequence.class);
+    private static final MethodHandle IDENTIFIER_COUNT = virtual(IDENTIFIER_COUNTS, "count", int.class, String.class);
+    private static final MethodHandle LOAD_RENAMES = handle(RENAMES, "load", RENAMES, Path.class, boolean.class);
+    private static final MethodHandle APPLY_RENAMES = virtual(RENAMES, "apply", CharSequence.class, CharSequence.class, PROFILE);
+    private static final MethodHandle PROFILE_FOR_EXTENSION = handle(PROFILES, "forExtension", PROFILE, String.class);
+    private static final MethodHandle NEW_JOB = constructor(JOB, String.class, String.class, String.class, String.class, boolean.class, String.class, boolean.class, String.class, String.class, boolean.class, String.class);
+    private static final MethodHandle PROCESS_DIRECTORY = handle("processDirectory", void.class, JOB);
+    private Processor() {
+    }
+    static Object extractStructure(String code, String extension) throws Throwable {
+        return (Object) EXTRACT_STRUCTURE.invokeExact(code, extension);}
+    static Object scanStructure(CharSequence code, String extension) throws Throwable {
+        return (Object) SCAN_STRUCTURE.invokeExact(code, extension);}
+    static List<String> imports(Object structure) throws Throwable {
+        return texts((Object) STRUCTURE_IMPORTS.invokeExact(structure));}
+    static List<String> classes(Object structure) throws Throwable {
+        return texts((Object) STRUCTURE_CLASSES.invokeExact(structure));}
+    static List<String> variables(Object structure) throws Throwable {
+        return texts((Object) STRUCTURE_VARIABLES.invokeExact(structure));}
+    static Object methods(Object structure) throws Throwable {
+        return (Object) STRUCTURE_METHODS.invokeExact(structure);}
+    static int methodCount(Object methods) throws Throwable {
+        return (int) METHOD_COUNT.invokeExact(methods);}
+    static String methodText(Object methods, int i) throws Throwable {
+        return (String) METHOD_TEXT.invokeExact(methods, i);}
+    static String methodSignature(Object methods, int i) throws Throwable {
+        return (String) METHOD_SIGNATURE.invokeExact(methods, i);}
+    static int methodLines(Object methods, int i) throws Throwable {
+        return (int) METHOD_LINES.invokeExact(methods, i);}
+    static String methodParameters(Object methods, int i) throws Throwable {
+        return (String) METHOD_PARAMETERS.invokeExact(methods, i);}
+    static String methodReturnType(Object methods, int i) throws Throwable {
+        return (String) METHOD_RETURN_TYPE.invokeExact(methods, i);}
+    private static List<String> texts(Object spans) throws Throwable {
+        int size = (int) SPAN_COUNT.invokeExact(spans);
+        List<String> texts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            texts.add((String) SPAN_TEXT.invokeExact(spans, i));}
+        return texts;}
+    static String removeDuplicateLines(String code) throws Throwable {
+        return (String) REMOVE_DUPLICATE_LINES.invokeExact((CharSequence) code);}
+    static Object removeDuplicateMethods(Object structure) throws Throwable {
+        return (Object) REMOVE_DUPLICATE_METHODS.invokeExact(structure);}
+    static void analyzeVariableUsage(Object structure) throws Throwable {
+        ANALYZE_VARIABLE_USAGE.invokeExact(structure);}
+    static String editCode(String code, String extension, String replaceFrom, String replaceTo, boolean formatIndent, String transformCase) throws Throwable {
+        return (String) EDIT_CODE.invokeExact(code, extension, (Object) null, replaceFrom, replaceTo, formatIndent, transformCase);}
+    static Object countIdentifiers(CharSequence code) throws Throwable {
+        return (Object) COUNT_IDENTIFIERS.invokeExact(code);}
+    static int identifierCount(Object counts, String identifier) throws Throwable {
+        return (int) IDENTIFIER_COUNT.invokeExact(counts, identifier);}
+    static Object loadRenames(Path file, boolean codeOnly) throws Throwable {
+        return (Object) LOAD_RENAMES.invokeExact(file, codeOnly);}
+    static Object profile(String extension) throws Throwable {
+        return (Object) PROFILE_FOR_EXTENSION.invokeExact(extension);}
+    static CharSequence applyRenames(Object renames, CharSequence code, Object profile) throws Throwable {
+        return (CharSequence) APPLY_RENAMES.invokeExact(renames, code, profile);}
+    static void processDirectory(String dirPath, String searchTerm, String filterType, String filterValue, boolean concatenate, String replaceFrom, String replaceTo, boolean formatIndent, String transformCase) throws Throwable {
+        Object job = (Object) NEW_JOB.invokeExact(dirPath, searchTerm, filterType, filterValue, concatenate, "", false, replaceFrom, replaceTo, formatIndent, transformCase);
+        PROCESS_DIRECTORY.invokeExact(job);}
+    private static Class<?> load(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Processor class not on the classpath: " + name, e);}
+    }
+    private static MethodHandle handle(String name, Class<?> returnType, Class<?>... parameterTypes) {
+        return handle(TOOL, name, returnType, parameterTypes);}
+    private static MethodHandle handle(Class<?> owner, String name, Class<?> returnType, Class<?>... parameterTypes) {
+        try {
+            MethodType type = MethodType.methodType(returnType, parameterTypes);
+            return exported(MethodHandles.privateLookupIn(owner, MethodHandles.lookup()).findStatic(owner, name, type));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Processor method not found: " + name, e);}
+    }
+    private static MethodHandle virtual(Class<?> owner, String name, Class<?> returnType, Class<?>... parameterTypes) {
+        try {
+            MethodType type = MethodType.methodType(returnType, parameterTypes);
+            return exported(MethodHandles.privateLookupIn(owner, MethodHandles.lookup()).findVirtual(owner, name, type));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Processor method not found: " + name, e);}
+    }
+    private static MethodHandle constructor(Class<?> owner, Class<?>... parameterTypes) {
+        try {
+            return exported(MethodHandles.privateLookupIn(owner, MethodHandles.lookup()).findConstructor(owner, MethodType.methodType(void.class, parameterTypes)));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Processor constructor not found: " + owner.getName(), e);}
+    }
+    private static MethodHandle getter(Class<?> owner, String name, Class<?> type) {
+        try {
+            return exported(MethodHandles.privateLookupIn(owner, MethodHandles.lookup()).findGetter(owner, name, type));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Processor field not found: " + name, e);}
+    }
+    private static MethodHandle exported(MethodHandle handle) {
+        MethodType type = handle.type();
+        MethodType exportedType = type.changeReturnType(exported(type.returnType()));
+        for (int i = 0; i < type.parameterCount(); i++) {
+            exportedType = exportedType.changeParameterType(i, exported(type.parameterType(i)));}
+        return handle.asType(exportedType);}
+    private static Class<?> exported(Class<?> type) {
+        return type == STRUCTURE || type == METHODS || type == SPANS || type == RENAMES || type == IDENTIFIER_COUNTS || type == PROFILE || type == JOB ? Object.class : type;}
+}
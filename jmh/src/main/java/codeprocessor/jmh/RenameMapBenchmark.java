@@ -0,0 +1,71 @@
+package codeprocessor.jmh;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.*;
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenameMapBenchmark {
+    private static final int STATEMENTS = 20000;
+    @State(Scope.Benchmark)
+    public static class Automaton {
+        @Param({"10", "100", "1000", "10000", "100000"})
+        int terms;
+        String code;
+        Object renames;
+        Object profile;
+        @Setup
+        public void build() throws Throwable {
+            code = source(STATEMENTS);
+            renames = renames(terms);
+            profile = Processor.profile(".java");}
+    }
+    @State(Scope.Benchmark)
+    public static class RegexPerTerm {
+        @Param({"10", "100"})
+        int regexTerms;
+        String code;
+        @Setup
+        public void build() throws Throwable {
+            code = source(STATEMENTS);
+            String expected = Processor.applyRenames(renames(regexTerms), code, Processor.profile(".java")).toString();
+            if (!expected.equals(regexPass(code, regexTerms))) {
+                throw new IllegalStateException("Regex and automaton output differ at " + regexTerms + " terms");}
+        }
+    }
+    @Benchmark
+    public CharSequence automaton(Automaton state) throws Throwable {
+        return Processor.applyRenames(state.renames, state.code, state.profile);}
+    @Benchmark
+    public String regexPerTerm(RegexPerTerm state) {
+        return regexPass(state.code, state.regexTerms);}
+    private static Object renames(int terms) throws Throwable {
+        Path file = Files.createTempFile("renames", ".txt");
+        try {
+            StringBuilder map = new StringBuilder();
+            for (int t = 0; t < terms; t++) {
+                map.append("field").append(t).append('=').append("renamed").append(t).append('\n');}
+            Files.writeString(file, map);
+            return Processor.loadRenames(file, false);
+        } finally {
+            Files.deleteIfExists(file);}
+    }
+    private static String regexPass(String code, int terms) {
+        String result = code;
+        for (int t = 0; t < terms; t++) {
+            result = Pattern.compile("\\b" + Pattern.quote("field" + t) + "\\b").matcher(result).replaceAll("renamed" + t);}
+        return result;}
+    private static String source(int statements) {
+        Random random = new Random(42);
+        StringBuilder out = new StringBuilder("public class Fields {\n    int sum() {\n        int total = 0;\n");
+        for (int s = 0; s < statements; s++) {
+            out.append("        total += field").append(random.nextInt(200)).append(" * value").append(random.nextInt(50)).append(";\n");}
+        out.append("        return total;\n    }\n}\n");
+        return out.toString();}
+}
@@ -0,0 +1,23 @@
+package codeprocessor.jmh;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StructureBenchmark {
+    @Param({".java", ".py", ".cpp", ".js"})
+    String extension;
+    @Param({"2000"})
+    int lines;
+    String code;
+    @Setup
+    public void generate() {
+        code = CorpusGenerator.source(extension, lines, 42);}
+    @Benchmark
+    public Object extractStructure() throws Throwable {
+        return Processor.extractStructure(code, extension);}
+}
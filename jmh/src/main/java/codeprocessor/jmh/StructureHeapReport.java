@@ -0,0 +1,107 @@
+package codeprocessor.jmh;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+public final class StructureHeapReport {
+    private static final class LegacyStructure {
+        final List<String> imports;
+        final List<String> classes;
+        final List<String> variables;
+        final List<String> methods = new ArrayList<>();
+        final Map<String, Integer> methodLineCounts = new HashMap<>();
+        final Map<String, String> methodSignatures = new HashMap<>();
+        final Map<String, String> methodParameters = new HashMap<>();
+        final Map<String, String> methodReturnTypes = new HashMap<>();
+        final Map<String, int[]> methodSpans = new HashMap<>();
+        LegacyStructure(List<String> imports, List<String> classes, List<String> variables) {
+            this.imports = imports;
+            this.classes = classes;
+            this.variables = variables;}
+    }
+    private StructureHeapReport() {
+    }
+    public static void main(String[] args) throws Throwable {
+        Path root;
+        Path generated = null;
+        if (args.length > 0) {
+            root = Paths.get(args[0]);
+        } else {
+            generated = Files.createTempDirectory("structure-heap");
+            CorpusGenerator.generate(generated, 400, 2000, 42);
+            root = generated;}
+        try {
+            report(root);
+        } finally {
+            if (generated != null) {
+                delete(generated);}
+        }
+    }
+    private static void report(Path root) throws Throwable {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile).filter(path -> extension(path) != null).sorted().collect(Collectors.toList());}
+        List<String> sources = new ArrayList<>();
+        List<String> extensions = new ArrayList<>();
+        long chars = 0;
+        for (Path file : files) {
+            String code = new String(Files.readAllBytes(file));
+            sources.add(code);
+            extensions.add(extension(file));
+            chars += code.length();}
+        long baseline = usedHeap();
+        List<Object> compact = new ArrayList<>();
+        for (int i = 0; i < sources.size(); i++) {
+            compact.add(Processor.extractStructure(sources.get(i), extensions.get(i)));}
+        long compactBytes = usedHeap() - baseline;
+        List<LegacyStructure> legacy = new ArrayList<>();
+        for (Object structure : compact) {
+            legacy.add(legacy(structure));}
+        compact = null;
+        long legacyBytes = usedHeap() - baseline;
+        System.out.printf("%d files, %.2f MB of source text%n", files.size(), chars * 2 / (1024.0 * 1024.0));
+        System.out.printf("strings and maps %8.2f MB%n", legacyBytes / (1024.0 * 1024.0));
+        System.out.printf("spans            %8.2f MB  (%.1fx smaller, %d structures)%n", compactBytes / (1024.0 * 1024.0), (double) legacyBytes / Math.max(1, compactBytes), legacy.size());
+    }
+    private static LegacyStructure legacy(Object structure) throws Throwable {
+        LegacyStructure legacy = new LegacyStructure(Processor.imports(structure), Processor.classes(structure), Processor.variables(structure));
+        Object methods = Processor.methods(structure);
+        for (int i = 0; i < Processor.methodCount(methods); i++) {
+            String text = Processor.methodText(methods, i);
+            String signature = Processor.methodSignature(methods, i);
+            legacy.methods.add(text);
+            legacy.methodLineCounts.put(new String(signature), Processor.methodLines(methods, i));
+            legacy.methodSignatures.put(text, new String(signature));
+            legacy.methodParameters.put(new String(signature), Processor.methodParameters(methods, i));
+            legacy.methodReturnTypes.put(new String(signature), Processor.methodReturnType(methods, i));
+            legacy.methodSpans.putIfAbsent(text, new int[10]);}
+        return legacy;}
+    private static String extension(Path file) {
+        String name = file.getFileName().toString();
+        String extension = name.substring(name.lastIndexOf('.') + 1).toLowerCase();
+        for (String supported : CorpusGenerator.EXTENSIONS) {
+            if (supported.substring(1).equals(extension)) {
+                return supported;}
+        }
+        return null;}
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            Thread.sleep(100);}
+        return runtime.totalMemory() - runtime.freeMemory();}
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            for (Path path : walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);}
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package codeprocessor.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.*;
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StructureScanBenchmark {
+    private static final Pattern[] JAVA_PATTERNS = {
+            Pattern.compile("import\\s+.*?;"),
+            Pattern.compile("class\\s+\\w+\\s*\\{[^}]*\\}", Pattern.DOTALL),
+            Pattern.compile("(public|private|protected)?\\s*(static)?\\s*(\\w+)\\s+(\\w+)\\s*\\([^)]*\\)\\s*\\{[^}]*\\}", Pattern.DOTALL),
+            Pattern.compile("(public|private|protected)?\\s*(static)?\\s*\\w+\\s+\\w+\\s*(=\\s*[^;]+)?;")};
+    private static final Pattern[] CPP_PATTERNS = {
+            Pattern.compile("#include\\s+[<\"][^>\"]+[>\"]"),
+            Pattern.compile("(class|struct)\\s+\\w+\\s*\\{[^}]*\\};", Pattern.DOTALL),
+            Pattern.compile("\\w+\\s+(\\w+)\\s*\\([^)]*\\)\\s*\\{[^}]*\\}", Pattern.DOTALL),
+            Pattern.compile("\\w+\\s+\\w+\\s*(=\\s*[^;]+)?;")};
+    private static final Pattern[] JS_PATTERNS = {
+            Pattern.compile("(import|require\\s*\\([^)]+\\))\\s*;"),
+            Pattern.compile("class\\s+\\w+\\s*\\{[^}]*\\}", Pattern.DOTALL),
+            Pattern.compile("(function\\s+(\\w+)\\s*\\([^)]*\\)|(\\w+)\\s*\\([^)]*\\)\\s*=>\\s*\\{)[^}]*\\}", Pattern.DOTALL),
+            Pattern.compile("(let|const|var)\\s+\\w+\\s*(=\\s*[^;]+)?;")};
+    @Param({".java", ".cpp", ".js"})
+    String extension;
+    @Param({"4"})
+    int megabytes;
+    String code;
+    Pattern[] patterns;
+    @Setup
+    public void generate() {
+        switch (extension) {
+            case ".cpp":
+                code = cppSource(megabytes);
+                patterns = CPP_PATTERNS;
+                break;
+            case ".js":
+                code = jsSource(megabytes);
+                patterns = JS_PATTERNS;
+                break;
+            default:
+                code = javaSource(megabytes);
+                patterns = JAVA_PATTERNS;}
+    }
+    @Benchmark
+    public List<List<String>> regexPasses() {
+        List<List<String>> found = new ArrayList<>(patterns.length);
+        for (Pattern pattern : patterns) {
+            List<String> matches = new ArrayList<>();
+            Matcher matcher = pattern.matcher(code);
+            while (matcher.find()) {
+                matches.add(matcher.group());}
+            found.add(matches);}
+        return found;}
+    @Benchmark
+    public Object braceScanner() throws Throwable {
+        return Processor.scanStructure(code, extension);}
+    private static String javaSource(int megabytes) {
+        Random random = new Random(42);
+        StringBuilder out = new StringBuilder();
+        out.append("import java.util.List;\nimport java.util.Map;\n");
+        for (int c = 0; out.length() < megabytes * 1024 * 1024; c++) {
+            out.append("public class Generated").append(c).append(" {\n");
+            out.append("    private int counter").append(c).append(" = ").append(random.nextInt(100)).append(";\n");
+            for (int m = 0; m < 8; m++) {
+                out.append("    public static int method").append(m).append("(int a, String label) {\n");
+                out.append("        int total = a;\n");
+                out.append("        for (int i = 0; i < a; i++) {\n");
+                out.append("            if (label.contains(\"}\")) { total += i; } else { total -= ").append(random.nextInt(9)).append("; }\n");
+                out.append("        }\n");
+                out.append("        // closing brace in comment }\n");
+                out.append("        return total;\n    }\n");}
+            out.append("}\n");}
+        return out.toString();}
+    private static String cppSource(int megabytes) {
+        Random random = new Random(42);
+        StringBuilder out = new StringBuilder();
+        out.append("#include <vector>\n#include \"util.h\"\n");
+        for (int c = 0; out.length() < megabytes * 1024 * 1024; c++) {
+            out.append("struct Point").append(c).append(" { int x; int y; };\n");
+            for (int m = 0; m < 8; m++) {
+                out.append("int compute").append(c).append('_').append(m).append("(int a, int b) {\n");
+                out.append("    int total = ").append(random.nextInt(100)).append(";\n");
+                out.append("    for (int i = 0; i < a; i++) {\n");
+                out.append("        if (i % 2 == 0) { total += b; } else { total -= '}'; }\n");
+                out.append("    }\n    return total;\n}\n");}
+        }
+        return out.toString();}
+    private static String jsSource(int megabytes) {
+        Random random = new Random(42);
+        StringBuilder out = new StringBuilder();
+        out.append("const fs = require('fs');\n");
+        for (int c = 0; out.length() < megabytes * 1024 * 1024; c++) {
+            out.append("let value").append(c).append(" = ").append(random.nextInt(100)).append(";\n");
+            for (int m = 0; m < 8; m++) {
+                out.append("function handler").append(c).append('_').append(m).append("(req, res) {\n");
+                out.append("    const items = req.items;\n");
+                out.append("    items.forEach((item) => { if (item) { res.push(`${item}}`); } });\n");
+                out.append("    return res;\n}\n");}
+        }
+        return out.toString();}
+}